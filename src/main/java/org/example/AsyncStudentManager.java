@@ -0,0 +1,180 @@
+package org.example;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking facade over a StudentManager.
+ *
+ * Every operation runs on its own virtual thread and returns a CompletableFuture, so callers such as
+ * the Swing UI never block on JDBC. A semaphore caps the number of calls that are inside the delegate
+ * at the same time; the rest wait on the semaphore, which parks only their virtual thread. Thousands
+ * of pending calls therefore cost no platform threads and never pile up on the connection pool,
+ * where they would run into the borrow timeout.
+ *
+ * Futures complete on the virtual thread that ran the call; use the *Async variants of
+ * CompletableFuture with an executor such as SwingUtilities::invokeLater to continue elsewhere.
+ */
+public class AsyncStudentManager implements AutoCloseable {
+
+    private final StudentManager delegate;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * @param delegate The blocking manager that does the work; it is not closed by this facade.
+     * @param maxConcurrency Maximum number of calls running inside the delegate at once.
+     */
+    public AsyncStudentManager(StudentManager delegate, int maxConcurrency) {
+        if (maxConcurrency < 1) throw new IllegalArgumentException("Async concurrency must be at least 1.");
+        this.delegate = delegate;
+        this.maxConcurrency = maxConcurrency;
+        this.permits = new Semaphore(maxConcurrency, true);
+    }
+
+    public AsyncStudentManager(StudentManager delegate, DatabaseConfig config) {
+        this(delegate, config.getAsyncMaxConcurrency());
+    }
+
+    /**
+     * @return The blocking manager behind this facade.
+     */
+    public StudentManager getDelegate() { return delegate; }
+
+    // Database Operations
+    public CompletableFuture<Void> addStudent(Student student) {
+        return run(() -> delegate.addStudent(student));
+    }
+
+    public CompletableFuture<Void> removeStudent(String studentID) {
+        return run(() -> delegate.removeStudent(studentID));
+    }
+
+    public CompletableFuture<Void> updateStudent(String studentID, Student updatedStudent) {
+        return run(() -> delegate.updateStudent(studentID, updatedStudent));
+    }
+
+    public CompletableFuture<BulkResult> addStudents(List<Student> students) {
+        return call(() -> delegate.addStudents(students));
+    }
+
+    public CompletableFuture<BulkResult> removeStudents(List<String> studentIDs) {
+        return call(() -> delegate.removeStudents(studentIDs));
+    }
+
+    public CompletableFuture<BulkResult> updateStudents(List<Student> updatedStudents) {
+        return call(() -> delegate.updateStudents(updatedStudents));
+    }
+
+    // Search and Display
+    public CompletableFuture<Student> findStudent(String studentID) {
+        return call(() -> delegate.findStudent(studentID));
+    }
+
+    public CompletableFuture<List<Student>> displayAllStudents() {
+        return call(delegate::displayAllStudents);
+    }
+
+    public CompletableFuture<List<Student>> searchStudents(String query) {
+        return call(() -> delegate.searchStudents(query));
+    }
+
+    public CompletableFuture<StudentPage> listStudents(PageKey afterKey, int limit, StudentSort sort) {
+        return call(() -> delegate.listStudents(afterKey, limit, sort));
+    }
+
+    /**
+     * Streams every student to the action on a virtual thread; the future completes after the last one.
+     */
+    public CompletableFuture<Void> forEachStudent(Consumer<? super Student> action) {
+        return run(() -> delegate.forEachStudent(action));
+    }
+
+    // Analytics
+    public CompletableFuture<Double> calculateAverageGrade() {
+        return call(delegate::calculateAverageGrade);
+    }
+
+    public CompletableFuture<GradeStatistics> getGradeStatistics() {
+        return call(delegate::getGradeStatistics);
+    }
+
+    // Import / Export
+    public CompletableFuture<Void> exportStudentsToCSV(String filePath) {
+        return run(() -> delegate.exportStudentsToCSV(filePath));
+    }
+
+    public CompletableFuture<Void> importStudentsFromCSV(String filePath) {
+        return run(() -> delegate.importStudentsFromCSV(filePath));
+    }
+
+    public CompletableFuture<Void> importStudentsFromCSV(String filePath, ImportMode mode) {
+        return run(() -> delegate.importStudentsFromCSV(filePath, mode));
+    }
+
+    // Course Management
+    public CompletableFuture<Map<String, String>> getAllCourses() {
+        return call(delegate::getAllCourses);
+    }
+
+    public CompletableFuture<Map<String, Integer>> getCourseCredits() {
+        return call(delegate::getCourseCredits);
+    }
+
+    /**
+     * @return Number of calls currently running inside the delegate.
+     */
+    public int getActiveCalls() { return maxConcurrency - permits.availablePermits(); }
+
+    /**
+     * @return Approximate number of calls waiting for a free slot.
+     */
+    public int getWaitingCalls() { return permits.getQueueLength(); }
+
+    /**
+     * Stops accepting calls and waits for the submitted ones to finish.
+     */
+    @Override
+    public void close() {
+        executor.close();
+    }
+
+    private CompletableFuture<Void> run(Runnable operation) {
+        return call(() -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    private <T> CompletableFuture<T> call(Supplier<T> operation) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    future.completeExceptionally(e);
+                    return;
+                }
+                try {
+                    future.complete(operation.get());
+                } catch (Throwable t) {
+                    future.completeExceptionally(t);
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(new IllegalStateException("AsyncStudentManager is closed.", e));
+        }
+        return future;
+    }
+}
@@ -0,0 +1,425 @@
+package org.example;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * High-throughput CSV import.
+ * The file is read by one thread, parsed and validated by a pool of workers, and written in file order
+ * by the calling thread (see importBlocks). Valid rows are grouped into chunks; each chunk is one task on the writer thread that inserts
+ * all students and enrollments with JDBC batches, reusing the same two prepared statements for the
+ * whole file. If a batch fails, the chunk is replayed row by row so each bad line gets its own error.
+ */
+class BulkCsvImporter {
+
+    /** Chunks queued to the writer while the next one is being parsed. */
+    private static final int CHUNKS_IN_FLIGHT = 2;
+    private static final Future<List<StudentCsv.Row>> END_OF_INPUT = CompletableFuture.completedFuture(null);
+
+    private final WriteQueue writes;
+    private final int chunkSize;
+    private final int parseThreads;
+    private final ImportMode mode;
+    private final Consumer<List<Student>> onCommitted;
+
+    // Only touched on the writer thread
+    private PreparedStatement insertStudent;
+    private PreparedStatement insertEnrollment;
+    private PreparedStatement deleteOtherEnrollments;
+
+    /**
+     * @param writes The writer queue that owns the database connection.
+     * @param chunkSize The number of rows per batch and writer task.
+     * @param parseThreads The number of threads that parse and validate lines.
+     * @param mode How rows with an existing ID are handled.
+     * @param onCommitted Called with the stored students of each chunk after it has committed.
+     */
+    BulkCsvImporter(WriteQueue writes, int chunkSize, int parseThreads, ImportMode mode, Consumer<List<Student>> onCommitted) {
+        this.writes = writes;
+        this.chunkSize = chunkSize;
+        this.parseThreads = parseThreads;
+        this.mode = mode;
+        this.onCommitted = onCommitted;
+    }
+
+    /**
+     * Outcome of one chunk: the stored students and the rows that failed.
+     */
+    private static class ChunkResult {
+        final List<Student> stored = new ArrayList<>();
+        final List<StudentCsv.Row> failed = new ArrayList<>();
+    }
+
+    /**
+     * Produces the next block of raw input together with the work needed to parse it.
+     */
+    @FunctionalInterface
+    interface BlockReader {
+        /**
+         * @return A task that parses the next block into rows, or null at the end of the input.
+         */
+        Callable<List<StudentCsv.Row>> nextBlock() throws IOException;
+    }
+
+    /**
+     * Imports the file through memory-mapped blocks. Invalid header and I/O errors are thrown;
+     * per-line problems are collected in the result.
+     */
+    ImportResult importFile(String filePath) throws IOException {
+        MappedCsvReader reader = new MappedCsvReader(Path.of(filePath), MappedCsvReader.DEFAULT_BLOCK_BYTES);
+        try {
+            StudentCsv.checkHeader(reader.getHeader());
+        } catch (RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+        return importBlocks(reader::nextBlock, reader, "Line");
+    }
+
+    /**
+     * Imports CSV text from a reader, for input that cannot be mapped. Closes the reader.
+     */
+    ImportResult importLines(BufferedReader reader) throws IOException {
+        try {
+            StudentCsv.checkHeader(StudentCsv.stripBom(reader.readLine()));
+        } catch (IOException | RuntimeException e) {
+            reader.close();
+            throw e;
+        }
+        int[] lineNum = {1};
+        return importBlocks(() -> {
+            int firstLine = lineNum[0] + 1;
+            List<String> lines = new ArrayList<>(chunkSize);
+            String line;
+            while (lines.size() < chunkSize && (line = reader.readLine()) != null) lines.add(line);
+            if (lines.isEmpty()) return null;
+            lineNum[0] += lines.size();
+            return () -> parseLines(firstLine, lines);
+        }, reader, "Line");
+    }
+
+    /**
+     * Imports a binary snapshot (see StudentSnapshot); its blocks are decoded on the parser pool.
+     * Errors are reported by record number, counting from 1.
+     */
+    ImportResult importSnapshot(Path path) throws IOException {
+        StudentSnapshot.Reader snapshot = new StudentSnapshot.Reader(path);
+        int[] next = {0, 1};
+        return importBlocks(() -> {
+            if (next[0] == snapshot.blockCount()) return null;
+            int block = next[0]++;
+            int firstRecord = next[1];
+            next[1] += snapshot.blockRows(block);
+            return () -> {
+                List<Student> students = snapshot.readBlock(block);
+                List<StudentCsv.Row> rows = new ArrayList<>(students.size());
+                for (int i = 0; i < students.size(); i++) rows.add(StudentCsv.Row.ok(firstRecord + i, students.get(i)));
+                return rows;
+            };
+        }, snapshot, "Record");
+    }
+
+    private static List<StudentCsv.Row> parseLines(int firstLine, List<String> lines) {
+        List<StudentCsv.Row> rows = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            StudentCsv.Row row = StudentCsv.parse(firstLine + i, lines.get(i));
+            if (row != null) rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * Runs the three-stage pipeline: a reader thread cuts the input into blocks, a pool of workers
+     * parses and validates them in parallel, and this thread takes the parsed blocks in input order
+     * and feeds them to the writer in chunks. Bounded queues between the stages provide backpressure.
+     * @param source Produces the blocks; only called from the reader thread.
+     * @param input Closed once the reader thread has stopped.
+     * @param rowLabel How errors name a row, e.g. "Line".
+     */
+    ImportResult importBlocks(BlockReader source, Closeable input, String rowLabel) throws IOException {
+        long start = System.nanoTime();
+        List<StudentCsv.Row> errors = new ArrayList<>();
+        int[] successCount = {0};
+        Deque<CompletableFuture<ChunkResult>> inFlight = new ArrayDeque<>();
+
+        ExecutorService parsers = Executors.newFixedThreadPool(parseThreads, r -> {
+            Thread t = new Thread(r, "csv-parser");
+            t.setDaemon(true);
+            return t;
+        });
+        BlockingQueue<Future<List<StudentCsv.Row>>> parsed = new ArrayBlockingQueue<>(parseThreads * 2);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Thread reader = new Thread(() -> readBlocks(source, parsers, parsed, cancelled), "csv-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        try {
+            List<StudentCsv.Row> chunk = new ArrayList<>(chunkSize);
+            Future<List<StudentCsv.Row>> block;
+            while ((block = parsed.take()) != END_OF_INPUT) {
+                for (StudentCsv.Row row : awaitBlock(block)) {
+                    if (!row.isValid()) {
+                        errors.add(row);
+                        continue;
+                    }
+                    chunk.add(row);
+                    if (chunk.size() == chunkSize) {
+                        submit(chunk, inFlight, errors, successCount);
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+            }
+            if (!chunk.isEmpty()) submit(chunk, inFlight, errors, successCount);
+            while (!inFlight.isEmpty()) collect(inFlight.poll(), errors, successCount);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StudentImportException("Import interrupted.");
+        } finally {
+            cancelled.set(true);
+            parsers.shutdownNow();
+            // On failure, still wait for queued chunks so the statements are not closed under them
+            while (!inFlight.isEmpty()) {
+                try { collect(inFlight.poll(), errors, successCount); } catch (StudentImportException ignored) {}
+            }
+            closeStatements();
+            joinQuietly(reader);
+            input.close();
+        }
+
+        errors.sort(Comparator.comparingInt(r -> r.lineNumber));
+        List<String> messages = new ArrayList<>(errors.size());
+        for (StudentCsv.Row row : errors) messages.add(rowLabel + " " + row.lineNumber + ": " + row.error);
+        return new ImportResult(successCount[0], messages, System.nanoTime() - start);
+    }
+
+    /**
+     * Reader stage: hands every block to the parser pool and queues its future in input order.
+     */
+    private static void readBlocks(BlockReader source, ExecutorService parsers,
+                                   BlockingQueue<Future<List<StudentCsv.Row>>> parsed, AtomicBoolean cancelled) {
+        try {
+            Callable<List<StudentCsv.Row>> block;
+            while (!cancelled.get() && (block = source.nextBlock()) != null) {
+                if (!put(parsed, parsers.submit(block), cancelled)) return;
+            }
+        } catch (IOException | RuntimeException e) {
+            put(parsed, CompletableFuture.failedFuture(e), cancelled);
+        }
+        put(parsed, END_OF_INPUT, cancelled);
+    }
+
+    /**
+     * Blocks while the queue is full, giving up if the import was cancelled.
+     */
+    private static boolean put(BlockingQueue<Future<List<StudentCsv.Row>>> queue, Future<List<StudentCsv.Row>> item, AtomicBoolean cancelled) {
+        try {
+            while (!queue.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                if (cancelled.get()) return false;
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static List<StudentCsv.Row> awaitBlock(Future<List<StudentCsv.Row>> block) throws IOException, InterruptedException {
+        try {
+            return block.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new StudentImportException("Import failed: " + cause.getMessage());
+        }
+    }
+
+    private static void joinQuietly(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submit(List<StudentCsv.Row> chunk, Deque<CompletableFuture<ChunkResult>> inFlight,
+                        List<StudentCsv.Row> errors, int[] successCount) {
+        inFlight.add(writes.submit(conn -> writeChunk(conn, chunk)));
+        if (inFlight.size() > CHUNKS_IN_FLIGHT) collect(inFlight.poll(), errors, successCount);
+    }
+
+    private void collect(CompletableFuture<ChunkResult> future, List<StudentCsv.Row> errors, int[] successCount) {
+        try {
+            ChunkResult result = future.get();
+            successCount[0] += result.stored.size();
+            errors.addAll(result.failed);
+            if (!result.stored.isEmpty()) onCommitted.accept(result.stored);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StudentImportException("Import interrupted.");
+        } catch (ExecutionException e) {
+            throw new StudentImportException("Database error during import: " + e.getCause().getMessage());
+        }
+    }
+
+    /**
+     * Inserts one chunk on the writer connection. Runs on the writer thread.
+     */
+    private ChunkResult writeChunk(Connection conn, List<StudentCsv.Row> rows) throws SQLException {
+        if (insertStudent == null) prepareStatements(conn);
+
+        ChunkResult result = new ChunkResult();
+        try (Statement control = conn.createStatement()) {
+            // Batches run statement by statement, so all deletes of a chunk precede all enrollments;
+            // a student listed twice would keep the courses of both rows. Such chunks go row by row.
+            if (deleteOtherEnrollments == null || hasUniqueIds(rows)) {
+                control.execute("SAVEPOINT import_chunk");
+                try {
+                    for (StudentCsv.Row row : rows) addToBatch(row.student);
+                    executeBatches();
+                    control.execute("RELEASE import_chunk");
+                    for (StudentCsv.Row row : rows) result.stored.add(row.student);
+                    return result;
+                } catch (SQLException batchError) {
+                    clearBatches();
+                    control.execute("ROLLBACK TO import_chunk");
+                    control.execute("RELEASE import_chunk");
+                }
+            }
+
+            // Slow path: find the failing rows one by one
+            for (StudentCsv.Row row : rows) {
+                control.execute("SAVEPOINT import_row");
+                try {
+                    addToBatch(row.student);
+                    executeBatches();
+                    control.execute("RELEASE import_row");
+                    result.stored.add(row.student);
+                } catch (SQLException e) {
+                    clearBatches();
+                    control.execute("ROLLBACK TO import_row");
+                    control.execute("RELEASE import_row");
+                    result.failed.add(StudentCsv.Row.failed(row.lineNumber, "Error adding student: " + e.getMessage()));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * In the merge modes a student row is only rewritten if a value changed, so re-importing
+     * an unchanged file does not fire the update triggers. Enrollments are reconciled as a set
+     * difference: existing ones are kept, missing ones added and, for REPLACE_ENROLLMENTS,
+     * courses no longer listed are deleted.
+     */
+    private void prepareStatements(Connection conn) throws SQLException {
+        String insert = "INSERT INTO students(studentID, name, age, grade, enrollmentDate) VALUES(?,?,?,?,?)";
+        String enroll = "INSERT INTO enrollments(studentID, courseCode) VALUES(?,?)";
+        if (mode == ImportMode.INSERT_ONLY) {
+            insertStudent = conn.prepareStatement(insert);
+            insertEnrollment = conn.prepareStatement(enroll);
+            return;
+        }
+        insertStudent = conn.prepareStatement(insert + " ON CONFLICT(studentID) DO UPDATE SET name = excluded.name, age = excluded.age, " +
+                "grade = excluded.grade, enrollmentDate = excluded.enrollmentDate " +
+                "WHERE (name, age, grade, enrollmentDate) IS NOT (excluded.name, excluded.age, excluded.grade, excluded.enrollmentDate)");
+        insertEnrollment = conn.prepareStatement(enroll + " ON CONFLICT(studentID, courseCode) DO NOTHING");
+        if (mode == ImportMode.REPLACE_ENROLLMENTS) {
+            deleteOtherEnrollments = conn.prepareStatement(
+                    "DELETE FROM enrollments WHERE studentID = ? AND courseCode NOT IN (SELECT value FROM json_each(?))");
+        }
+    }
+
+    private void addToBatch(Student student) throws SQLException {
+        insertStudent.setString(1, student.getStudentID());
+        insertStudent.setString(2, student.getName());
+        insertStudent.setInt(3, student.getAge());
+        insertStudent.setDouble(4, student.getGrade());
+        insertStudent.setString(5, student.getEnrollmentDate().toString());
+        insertStudent.addBatch();
+        if (deleteOtherEnrollments != null) {
+            deleteOtherEnrollments.setString(1, student.getStudentID());
+            deleteOtherEnrollments.setString(2, toJsonArray(student.getCourses()));
+            deleteOtherEnrollments.addBatch();
+        }
+        for (String code : student.getCourses()) {
+            insertEnrollment.setString(1, student.getStudentID());
+            insertEnrollment.setString(2, code);
+            insertEnrollment.addBatch();
+        }
+    }
+
+    private void executeBatches() throws SQLException {
+        insertStudent.executeBatch();
+        if (deleteOtherEnrollments != null) deleteOtherEnrollments.executeBatch();
+        insertEnrollment.executeBatch();
+    }
+
+    private void clearBatches() throws SQLException {
+        insertStudent.clearBatch();
+        if (deleteOtherEnrollments != null) deleteOtherEnrollments.clearBatch();
+        insertEnrollment.clearBatch();
+    }
+
+    private static boolean hasUniqueIds(List<StudentCsv.Row> rows) {
+        Set<String> ids = new HashSet<>();
+        for (StudentCsv.Row row : rows) {
+            if (!ids.add(row.student.getStudentID())) return false;
+        }
+        return true;
+    }
+
+    private static String toJsonArray(List<String> values) {
+        StringBuilder json = new StringBuilder("[");
+        for (String value : values) {
+            if (json.length() > 1) json.append(',');
+            json.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') json.append('\\').append(c);
+                else if (c < 0x20) json.append(String.format("\\u%04x", (int) c));
+                else json.append(c);
+            }
+            json.append('"');
+        }
+        return json.append(']').toString();
+    }
+
+    private void closeStatements() {
+        try {
+            writes.execute(conn -> {
+                if (insertStudent != null) insertStudent.close();
+                if (insertEnrollment != null) insertEnrollment.close();
+                if (deleteOtherEnrollments != null) deleteOtherEnrollments.close();
+                insertStudent = null;
+                insertEnrollment = null;
+                deleteOtherEnrollments = null;
+                return null;
+            });
+        } catch (SQLException ignored) {}
+    }
+}
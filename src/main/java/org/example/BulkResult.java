@@ -0,0 +1,46 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per-item outcome of a bulk mutation such as addStudents.
+ * Items are indexed in the order they were passed in; a failed item does not affect the others.
+ */
+public class BulkResult {
+    private final List<String> errors;
+    private final int failureCount;
+
+    /**
+     * @param errors One entry per item: null on success, otherwise the error message.
+     */
+    public BulkResult(List<String> errors) {
+        this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+        int failures = 0;
+        for (String error : errors) {
+            if (error != null) failures++;
+        }
+        this.failureCount = failures;
+    }
+
+    public int size() { return errors.size(); }
+
+    public boolean isSuccess(int index) { return errors.get(index) == null; }
+
+    /**
+     * @return The error message of the item, or null if it succeeded.
+     */
+    public String getError(int index) { return errors.get(index); }
+
+    public int getSuccessCount() { return errors.size() - failureCount; }
+
+    public int getFailureCount() { return failureCount; }
+
+    public boolean hasFailures() { return failureCount > 0; }
+
+    @Override
+    public String toString() {
+        return "BulkResult{success=" + getSuccessCount() + ", failed=" + failureCount + "}";
+    }
+}
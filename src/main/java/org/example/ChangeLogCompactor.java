@@ -0,0 +1,94 @@
+package org.example;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Compacts the change log in the background so that it keeps only the latest change per student.
+ * A reader syncing from any sequence number still sees the final state of every changed student.
+ *
+ * Each run only looks at students with entries newer than the previous run: all others already
+ * have a single entry, so a run costs O(new changes) rather than O(log size).
+ * Runs are submitted to the writer queue and never overlap with other writes.
+ */
+public class ChangeLogCompactor implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(ChangeLogCompactor.class.getName());
+
+    private final WriteQueue writes;
+    private final ScheduledExecutorService scheduler;
+    private long compactedThrough; // Only touched on the writer thread
+
+    /**
+     * @param writes The writer queue that owns the database connection.
+     * @param intervalMillis Time between two runs; 0 disables the background runs.
+     */
+    public ChangeLogCompactor(WriteQueue writes, long intervalMillis) {
+        this.writes = writes;
+        if (intervalMillis <= 0) {
+            this.scheduler = null;
+            return;
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sqlite-change-log-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::compactQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Removes every entry that has a newer entry for the same student.
+     * @return The number of removed entries.
+     */
+    public int compact() throws SQLException {
+        return writes.execute(this::compact);
+    }
+
+    private int compact(Connection conn) throws SQLException {
+        long maxSeq;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(seq), 0) FROM change_log")) {
+            maxSeq = rs.next() ? rs.getLong(1) : 0;
+        }
+        if (maxSeq <= compactedThrough) return 0;
+
+        int removed;
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "DELETE FROM change_log WHERE studentID IN (SELECT studentID FROM change_log WHERE seq > ?) " +
+                "AND seq < (SELECT MAX(n.seq) FROM change_log n WHERE n.studentID = change_log.studentID)")) {
+            pstmt.setLong(1, compactedThrough);
+            removed = pstmt.executeUpdate();
+        }
+        compactedThrough = maxSeq;
+        LOGGER.fine("Change log compacted through " + maxSeq + ": " + removed + " entries removed");
+        return removed;
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (SQLException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Change log compaction failed", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (scheduler == null) return;
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.example;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.example.StudentFixtures.newDatabaseManager;
+import static org.example.StudentFixtures.student;
+
+public class ChangeLogTest {
+
+    @Test
+    public void testUpdateAfterSyncIsLogged() throws Exception {
+        try (StudentManagerImpl manager = newDatabaseManager()) {
+            manager.addStudent(student("S1", "Anna Berg", 20, 91.5, "CS101"));
+            long synced = manager.getCurrentChangeSeq();
+
+            manager.updateStudent("S1", student("S1", "Anna Berg", 21, 92, "CS101"));
+            List<StudentChange> changes = manager.getChangesSince(synced, 100);
+            Assertions.assertEquals(1, changes.size());
+            Assertions.assertEquals(StudentChange.Type.UPDATE, changes.get(0).getType());
+            Assertions.assertEquals(21, changes.get(0).getStudent().getAge());
+
+            // Enrollment-only changes count as updates too
+            synced = manager.getCurrentChangeSeq();
+            manager.updateStudent("S1", student("S1", "Anna Berg", 21, 92, "MATH101"));
+            changes = manager.getChangesSince(synced, 100);
+            Assertions.assertEquals(1, changes.size());
+            Assertions.assertEquals(List.of("MATH101"), changes.get(0).getStudent().getCourses());
+        }
+    }
+
+    @Test
+    public void testCompactionKeepsLatestChange() throws Exception {
+        try (StudentManagerImpl manager = newDatabaseManager()) {
+            manager.addStudent(student("S1", "Anna Berg", 20, 91.5, "CS101"));
+            manager.updateStudent("S1", student("S1", "Anna Berg", 21, 92, "MATH101"));
+            long latest = manager.getCurrentChangeSeq();
+
+            Assertions.assertTrue(manager.compactChangeLog() > 0);
+            List<StudentChange> changes = manager.getChangesSince(0, 100);
+            Assertions.assertEquals(1, changes.size());
+            Assertions.assertEquals(latest, changes.get(0).getSeq());
+        }
+    }
+}
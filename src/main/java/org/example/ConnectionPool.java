@@ -0,0 +1,234 @@
+package org.example;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded pool of SQLite connections.
+ * Connections are opened up front, have their PRAGMAs applied once and are validated on every borrow.
+ * Calling close() on a borrowed connection returns it to the pool instead of closing the file.
+ * In WAL mode pooled connections are read-only (query_only); writes go through a dedicated connection.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    private final DatabaseConfig config;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<Connection> idle = new LinkedBlockingDeque<>();
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong borrowed = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * Creates the pool and pre-warms the configured number of idle connections.
+     * @param config The database configuration.
+     * @throws SQLException if the initial connections cannot be opened.
+     */
+    public ConnectionPool(DatabaseConfig config) throws SQLException {
+        this.config = config;
+        this.permits = new Semaphore(config.getPoolMaxSize(), true);
+        for (int i = 0; i < Math.min(config.getPoolMinIdle(), config.getPoolMaxSize()); i++) {
+            idle.offer(openConnection(config.isWalMode()));
+        }
+    }
+
+    /**
+     * Borrows a connection, waiting up to the configured timeout if the pool is exhausted.
+     * @return A validated connection; close it to give it back.
+     * @throws SQLException if no connection became available in time or a new one cannot be opened.
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed.");
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(config.getBorrowTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out waiting for a database connection after " + config.getBorrowTimeoutMillis() + " ms.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+        waitNanos.addAndGet(System.nanoTime() - start);
+
+        try {
+            Connection conn = takeValidConnection();
+            active.incrementAndGet();
+            borrowed.incrementAndGet();
+            return wrap(conn);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a snapshot of the pool counters.
+     */
+    public PoolStats getStats() {
+        return new PoolStats(active.get(), idle.size(), created.get(), borrowed.get(), waitNanos.get());
+    }
+
+    /**
+     * Closes all idle connections. Borrowed connections are closed when they are returned.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        Connection conn;
+        while ((conn = idle.poll()) != null) closeQuietly(conn);
+    }
+
+    private Connection takeValidConnection() throws SQLException {
+        Connection conn;
+        while ((conn = idle.pollFirst()) != null) {
+            if (isValid(conn)) return conn;
+            LOGGER.warning("Discarding broken pooled connection");
+            closeQuietly(conn);
+        }
+        return openConnection(config.isWalMode());
+    }
+
+    /**
+     * Opens a writable connection that is owned by the caller.
+     * Used for long-lived connections such as the writer and the WAL checkpointer.
+     * In WAL mode it also switches the database file to journal_mode=WAL.
+     */
+    Connection openDedicatedConnection() throws SQLException {
+        return openConnection(false);
+    }
+
+    private Connection openConnection(boolean readOnly) throws SQLException {
+        Connection conn = DriverManager.getConnection(config.getUrl());
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA foreign_keys = ON;");
+            stmt.execute("PRAGMA busy_timeout = " + config.getBusyTimeoutMillis() + ";");
+            if (readOnly) {
+                stmt.execute("PRAGMA query_only = ON;");
+            } else if (config.isWalMode()) {
+                stmt.execute("PRAGMA journal_mode = WAL;");
+                stmt.execute("PRAGMA wal_autocheckpoint = " + config.getWalAutoCheckpointPages() + ";");
+            }
+        } catch (SQLException e) {
+            closeQuietly(conn);
+            throw e;
+        }
+        created.incrementAndGet();
+        return conn;
+    }
+
+    private boolean isValid(Connection conn) {
+        try {
+            return !conn.isClosed() && conn.isValid(1);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Called when a borrowed connection is closed by its user.
+     * Uncommitted work is rolled back so the next borrower starts from a clean state.
+     */
+    private void release(Connection conn) {
+        active.decrementAndGet();
+        try {
+            if (closed || conn.isClosed()) {
+                closeQuietly(conn);
+                return;
+            }
+            if (!conn.getAutoCommit()) {
+                conn.rollback();
+                conn.setAutoCommit(true);
+            }
+            idle.offerFirst(conn);
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "Dropping connection that could not be reset", e);
+            closeQuietly(conn);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private Connection wrap(Connection target) {
+        AtomicInteger state = new AtomicInteger(); // 0 = borrowed, 1 = returned
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            if (state.compareAndSet(0, 1)) release(target);
+                            return null;
+                        case "isClosed":
+                            return state.get() == 1 || target.isClosed();
+                        case "unwrap":
+                            if (((Class<?>) args[0]).isInstance(target)) return target;
+                            break;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            break;
+                    }
+                    if (state.get() == 1) throw new SQLException("Connection has already been returned to the pool.");
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static void closeQuietly(Connection conn) {
+        try { conn.close(); } catch (SQLException e) {}
+    }
+
+    /**
+     * Point-in-time pool metrics.
+     */
+    public static class PoolStats {
+        private final int active;
+        private final int idle;
+        private final long created;
+        private final long borrowed;
+        private final long totalWaitNanos;
+
+        PoolStats(int active, int idle, long created, long borrowed, long totalWaitNanos) {
+            this.active = active;
+            this.idle = idle;
+            this.created = created;
+            this.borrowed = borrowed;
+            this.totalWaitNanos = totalWaitNanos;
+        }
+
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public long getCreated() { return created; }
+        public long getBorrowed() { return borrowed; }
+        public long getTotalWaitNanos() { return totalWaitNanos; }
+
+        public double getAverageWaitMillis() {
+            return borrowed == 0 ? 0.0 : totalWaitNanos / 1_000_000.0 / borrowed;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("active=%d, idle=%d, created=%d, borrowed=%d, avgWait=%.3f ms",
+                    active, idle, created, borrowed, getAverageWaitMillis());
+        }
+    }
+}
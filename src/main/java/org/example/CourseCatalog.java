@@ -0,0 +1,168 @@
+package org.example;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * In-memory copy of the courses table.
+ *
+ * Triggers on courses increment the single row of catalog_version on every insert, update or delete,
+ * including changes made outside this application. The catalog reads that row at most once per check
+ * interval and reloads the courses only when the number has changed, so lookups are plain map reads.
+ * Each load produces new unmodifiable maps that are swapped in atomically; a caller holding a map
+ * keeps a consistent view.
+ */
+public class CourseCatalog {
+    private static final Logger LOGGER = Logger.getLogger(CourseCatalog.class.getName());
+
+    private final ConnectionPool pool;
+    private final long checkIntervalMillis;
+    private volatile Snapshot snapshot = new Snapshot(-1, Collections.emptyMap());
+    private volatile long nextCheck;
+
+    /**
+     * A course with its name and credits.
+     */
+    public static final class Course {
+        private final String code;
+        private final String name;
+        private final int credits;
+
+        Course(String code, String name, int credits) {
+            this.code = code;
+            this.name = name;
+            this.credits = credits;
+        }
+
+        public String getCode() { return code; }
+        public String getName() { return name; }
+        public int getCredits() { return credits; }
+
+        @Override
+        public String toString() { return code + " (" + name + ", " + credits + " credits)"; }
+    }
+
+    /**
+     * The courses the non-SQL backends start with; the same rows migration 8 of StudentManagerImpl inserts.
+     */
+    static final List<Course> DEFAULT_COURSES = List.of(
+            new Course("CS101", "Intro to Java", 5),
+            new Course("MATH101", "Calculus I", 4),
+            new Course("HIST101", "World History", 3),
+            new Course("PHYS101", "Physics", 4));
+
+    private static final class Snapshot {
+        final long version;
+        final Map<String, Course> courses;
+        final Map<String, String> names;
+        final Map<String, Integer> credits;
+
+        Snapshot(long version, Map<String, Course> courses) {
+            this.version = version;
+            this.courses = Collections.unmodifiableMap(courses);
+            Map<String, String> names = new LinkedHashMap<>();
+            Map<String, Integer> credits = new LinkedHashMap<>();
+            for (Course c : courses.values()) {
+                names.put(c.getCode(), c.getName());
+                credits.put(c.getCode(), c.getCredits());
+            }
+            this.names = Collections.unmodifiableMap(names);
+            this.credits = Collections.unmodifiableMap(credits);
+        }
+    }
+
+    /**
+     * @param checkIntervalMillis Minimum time between two reads of the catalog version; 0 checks on every call.
+     */
+    CourseCatalog(ConnectionPool pool, long checkIntervalMillis) {
+        this.pool = pool;
+        this.checkIntervalMillis = checkIntervalMillis;
+    }
+
+    /**
+     * Creates the version table and the triggers on courses. Runs on the writer connection before
+     * the default courses are inserted.
+     */
+    static void initializeSchema(Statement stmt) throws SQLException {
+        stmt.execute("CREATE TABLE IF NOT EXISTS catalog_version (id INTEGER PRIMARY KEY CHECK (id = 1), version INTEGER NOT NULL);");
+        stmt.execute("INSERT OR IGNORE INTO catalog_version(id, version) VALUES (1, 0);");
+        String bump = " ON courses BEGIN UPDATE catalog_version SET version = version + 1 WHERE id = 1; END;";
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS catalog_version_insert AFTER INSERT" + bump);
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS catalog_version_update AFTER UPDATE" + bump);
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS catalog_version_delete AFTER DELETE" + bump);
+    }
+
+    /**
+     * @return All courses by code, ordered by code.
+     */
+    public Map<String, Course> getCourses() { return current().courses; }
+
+    /**
+     * @return Course names by code.
+     */
+    public Map<String, String> getCourseNames() { return current().names; }
+
+    /**
+     * @return Course credits by code, in the form Student.calculateGPA expects.
+     */
+    public Map<String, Integer> getCourseCredits() { return current().credits; }
+
+    /**
+     * @return The course, or null if the code is unknown.
+     */
+    public Course getCourse(String courseCode) { return current().courses.get(courseCode); }
+
+    /**
+     * @return The catalog version of the loaded courses.
+     */
+    public long getVersion() { return current().version; }
+
+    /**
+     * Forces the next lookup to check the version, e.g. right after this process changed the courses.
+     */
+    public void invalidate() { nextCheck = 0; }
+
+    private Snapshot current() {
+        if (System.currentTimeMillis() >= nextCheck) refresh();
+        return snapshot;
+    }
+
+    /**
+     * Reads the version and reloads the courses if it changed. The version is read first, so a
+     * change committed in between only causes one more reload on the next check.
+     */
+    private synchronized void refresh() {
+        long now = System.currentTimeMillis();
+        if (now < nextCheck) return;
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement()) {
+            long version;
+            try (ResultSet rs = stmt.executeQuery("SELECT version FROM catalog_version WHERE id = 1")) {
+                version = rs.next() ? rs.getLong(1) : 0;
+            }
+            if (version != snapshot.version) {
+                Map<String, Course> courses = new LinkedHashMap<>();
+                try (ResultSet rs = stmt.executeQuery("SELECT courseCode, courseName, credits FROM courses ORDER BY courseCode")) {
+                    while (rs.next()) {
+                        String code = rs.getString("courseCode");
+                        courses.put(code, new Course(code, rs.getString("courseName"), rs.getInt("credits")));
+                    }
+                }
+                snapshot = new Snapshot(version, courses);
+                LOGGER.fine("Course catalog loaded: " + courses.size() + " courses, version " + version);
+            }
+            nextCheck = now + checkIntervalMillis;
+        } catch (SQLException e) {
+            // Keep serving the last loaded catalog; the next lookup tries again
+            LOGGER.log(Level.SEVERE, "Error loading courses", e);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package org.example;
+
+import java.util.zip.Deflater;
+
+/**
+ * Configuration of the student storage: the SQLite database used by StudentManagerImpl and the
+ * settings of the alternative backends selected with -Dsms.backend.
+ * Defaults can be overridden with system properties, e.g. -Dsms.pool.maxSize=16.
+ */
+public class DatabaseConfig {
+
+    public static final String DEFAULT_URL = "jdbc:sqlite:student_management.db";
+
+    private String url = DEFAULT_URL;
+    private int poolMinIdle = 2;
+    private int poolMaxSize = 8;
+    private long borrowTimeoutMillis = 5000;
+    private int busyTimeoutMillis = 5000;
+    private int writeBatchSize = 256;
+    private int writeQueueCapacity = 10_000;
+    private boolean walMode = false;
+    private int walAutoCheckpointPages = 1000;
+    private long checkpointIntervalMillis = 0;
+    private boolean ngramSearch = false;
+    private int importChunkSize = 5000;
+    private int importParseThreads = Runtime.getRuntime().availableProcessors();
+    private int gzipLevel = Deflater.DEFAULT_COMPRESSION;
+    private long changeLogCompactIntervalMillis = 60_000;
+    private int asyncMaxConcurrency = 8;
+    private int cacheMaxStudents = 10_000;
+    private long catalogCheckIntervalMillis = 1000;
+    private StorageBackend backend = StorageBackend.SQLITE;
+    private String logDirectory = "student_log";
+    private long logSegmentBytes = 64L << 20;
+    private boolean logSyncWrites = true;
+    private long logCompactIntervalMillis = 60_000;
+
+    /**
+     * Builds a configuration from the "sms.*" system properties.
+     * Every value goes through its setter, so an invalid property fails here rather than at first use.
+     * @return A configuration with defaults for every property that is not set.
+     * @throws IllegalArgumentException If a property has an invalid value.
+     */
+    public static DatabaseConfig fromSystemProperties() {
+        DatabaseConfig config = new DatabaseConfig();
+        config.setUrl(System.getProperty("sms.db.url", config.getUrl()));
+        config.setPoolMinIdle(Integer.getInteger("sms.pool.minIdle", config.getPoolMinIdle()));
+        config.setPoolMaxSize(Integer.getInteger("sms.pool.maxSize", config.getPoolMaxSize()));
+        config.setBorrowTimeoutMillis(Long.getLong("sms.pool.borrowTimeoutMillis", config.getBorrowTimeoutMillis()));
+        config.setBusyTimeoutMillis(Integer.getInteger("sms.db.busyTimeoutMillis", config.getBusyTimeoutMillis()));
+        config.setWriteBatchSize(Integer.getInteger("sms.write.batchSize", config.getWriteBatchSize()));
+        config.setWriteQueueCapacity(Integer.getInteger("sms.write.queueCapacity", config.getWriteQueueCapacity()));
+        config.setWalMode(Boolean.parseBoolean(System.getProperty("sms.db.wal", String.valueOf(config.isWalMode()))));
+        config.setWalAutoCheckpointPages(Integer.getInteger("sms.db.walAutoCheckpoint", config.getWalAutoCheckpointPages()));
+        config.setCheckpointIntervalMillis(Long.getLong("sms.db.checkpointIntervalMillis", config.getCheckpointIntervalMillis()));
+        config.setNgramSearch(Boolean.parseBoolean(System.getProperty("sms.search.ngram", String.valueOf(config.isNgramSearch()))));
+        config.setImportChunkSize(Integer.getInteger("sms.import.chunkSize", config.getImportChunkSize()));
+        config.setImportParseThreads(Integer.getInteger("sms.import.parseThreads", config.getImportParseThreads()));
+        config.setGzipLevel(Integer.getInteger("sms.csv.gzipLevel", config.getGzipLevel()));
+        config.setChangeLogCompactIntervalMillis(Long.getLong("sms.cdc.compactIntervalMillis", config.getChangeLogCompactIntervalMillis()));
+        config.setAsyncMaxConcurrency(Integer.getInteger("sms.async.maxConcurrency", config.getPoolMaxSize()));
+        config.setCacheMaxStudents(Integer.getInteger("sms.cache.maxStudents", config.getCacheMaxStudents()));
+        config.setCatalogCheckIntervalMillis(Long.getLong("sms.catalog.checkIntervalMillis", config.getCatalogCheckIntervalMillis()));
+        config.setBackend(StorageBackend.fromName(System.getProperty("sms.backend", config.getBackend().name())));
+        config.setLogDirectory(System.getProperty("sms.log.dir", config.getLogDirectory()));
+        config.setLogSegmentBytes(Long.getLong("sms.log.segmentBytes", config.getLogSegmentBytes()));
+        config.setLogSyncWrites(Boolean.parseBoolean(System.getProperty("sms.log.syncWrites", String.valueOf(config.isLogSyncWrites()))));
+        config.setLogCompactIntervalMillis(Long.getLong("sms.log.compactIntervalMillis", config.getLogCompactIntervalMillis()));
+        return config;
+    }
+
+    public String getUrl() { return url; }
+    public DatabaseConfig setUrl(String url) {
+        if (url == null || url.isBlank()) throw new IllegalArgumentException("Database URL must not be blank.");
+        this.url = url;
+        return this;
+    }
+
+    public int getPoolMinIdle() { return poolMinIdle; }
+    public DatabaseConfig setPoolMinIdle(int poolMinIdle) {
+        if (poolMinIdle < 0) throw new IllegalArgumentException("Minimum idle connections must not be negative.");
+        this.poolMinIdle = poolMinIdle;
+        return this;
+    }
+
+    public int getPoolMaxSize() { return poolMaxSize; }
+    public DatabaseConfig setPoolMaxSize(int poolMaxSize) {
+        if (poolMaxSize < 1) throw new IllegalArgumentException("Pool size must be at least 1.");
+        this.poolMaxSize = poolMaxSize;
+        return this;
+    }
+
+    public long getBorrowTimeoutMillis() { return borrowTimeoutMillis; }
+    public DatabaseConfig setBorrowTimeoutMillis(long borrowTimeoutMillis) {
+        if (borrowTimeoutMillis < 0) throw new IllegalArgumentException("Borrow timeout cannot be negative.");
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        return this;
+    }
+
+    public int getBusyTimeoutMillis() { return busyTimeoutMillis; }
+    public DatabaseConfig setBusyTimeoutMillis(int busyTimeoutMillis) {
+        if (busyTimeoutMillis < 0) throw new IllegalArgumentException("Busy timeout cannot be negative.");
+        this.busyTimeoutMillis = busyTimeoutMillis;
+        return this;
+    }
+
+    public int getWriteBatchSize() { return writeBatchSize; }
+    public DatabaseConfig setWriteBatchSize(int writeBatchSize) {
+        if (writeBatchSize < 1) throw new IllegalArgumentException("Write batch size must be at least 1.");
+        this.writeBatchSize = writeBatchSize;
+        return this;
+    }
+
+    public int getWriteQueueCapacity() { return writeQueueCapacity; }
+    public DatabaseConfig setWriteQueueCapacity(int writeQueueCapacity) {
+        if (writeQueueCapacity < 1) throw new IllegalArgumentException("Write queue capacity must be at least 1.");
+        this.writeQueueCapacity = writeQueueCapacity;
+        return this;
+    }
+
+    /**
+     * In WAL mode the writer connection switches the database to journal_mode=WAL and
+     * pooled connections become read-only readers that do not block on the writer.
+     */
+    public boolean isWalMode() { return walMode; }
+    public DatabaseConfig setWalMode(boolean walMode) {
+        this.walMode = walMode;
+        return this;
+    }
+
+    /**
+     * WAL size in pages after which SQLite checkpoints automatically on commit (0 disables it).
+     */
+    public int getWalAutoCheckpointPages() { return walAutoCheckpointPages; }
+    public DatabaseConfig setWalAutoCheckpointPages(int walAutoCheckpointPages) {
+        if (walAutoCheckpointPages < 0) throw new IllegalArgumentException("WAL auto-checkpoint pages cannot be negative.");
+        this.walAutoCheckpointPages = walAutoCheckpointPages;
+        return this;
+    }
+
+    /**
+     * Interval of the background PASSIVE checkpoint in WAL mode (0 disables it).
+     */
+    public long getCheckpointIntervalMillis() { return checkpointIntervalMillis; }
+    public DatabaseConfig setCheckpointIntervalMillis(long checkpointIntervalMillis) {
+        if (checkpointIntervalMillis < 0) throw new IllegalArgumentException("Checkpoint interval cannot be negative.");
+        this.checkpointIntervalMillis = checkpointIntervalMillis;
+        return this;
+    }
+
+    /**
+     * When enabled, searchStudents is answered from an in-memory trigram index instead of the database index.
+     */
+    public boolean isNgramSearch() { return ngramSearch; }
+    public DatabaseConfig setNgramSearch(boolean ngramSearch) {
+        this.ngramSearch = ngramSearch;
+        return this;
+    }
+
+    /**
+     * Number of CSV rows inserted per JDBC batch during an import.
+     */
+    public int getImportChunkSize() { return importChunkSize; }
+    public DatabaseConfig setImportChunkSize(int importChunkSize) {
+        if (importChunkSize < 1) throw new IllegalArgumentException("Import chunk size must be at least 1.");
+        this.importChunkSize = importChunkSize;
+        return this;
+    }
+
+    /**
+     * Number of worker threads that parse and validate CSV lines during an import.
+     */
+    public int getImportParseThreads() { return importParseThreads; }
+    public DatabaseConfig setImportParseThreads(int importParseThreads) {
+        if (importParseThreads < 1) throw new IllegalArgumentException("At least one parse thread is required.");
+        this.importParseThreads = importParseThreads;
+        return this;
+    }
+
+    /**
+     * Deflater level (0-9, or -1 for the zlib default) for exports to ".gz" files.
+     */
+    public int getGzipLevel() { return gzipLevel; }
+    public DatabaseConfig setGzipLevel(int gzipLevel) {
+        if (gzipLevel < -1 || gzipLevel > 9) throw new IllegalArgumentException("Gzip level must be between -1 and 9.");
+        this.gzipLevel = gzipLevel;
+        return this;
+    }
+
+    /**
+     * Time between background compactions of the change log; 0 disables them.
+     */
+    public long getChangeLogCompactIntervalMillis() { return changeLogCompactIntervalMillis; }
+    public DatabaseConfig setChangeLogCompactIntervalMillis(long changeLogCompactIntervalMillis) {
+        if (changeLogCompactIntervalMillis < 0) throw new IllegalArgumentException("Change log compaction interval cannot be negative.");
+        this.changeLogCompactIntervalMillis = changeLogCompactIntervalMillis;
+        return this;
+    }
+
+    /**
+     * Maximum number of AsyncStudentManager calls that run against the database at the same time;
+     * further calls wait without holding a thread. Defaults to the pool size.
+     */
+    public int getAsyncMaxConcurrency() { return asyncMaxConcurrency; }
+    public DatabaseConfig setAsyncMaxConcurrency(int asyncMaxConcurrency) {
+        if (asyncMaxConcurrency < 1) throw new IllegalArgumentException("Async concurrency must be at least 1.");
+        this.asyncMaxConcurrency = asyncMaxConcurrency;
+        return this;
+    }
+
+    /**
+     * Capacity of the in-process student cache; 0 disables it.
+     * The cache assumes that no other process writes to the database.
+     */
+    public int getCacheMaxStudents() { return cacheMaxStudents; }
+    public DatabaseConfig setCacheMaxStudents(int cacheMaxStudents) {
+        if (cacheMaxStudents < 0) throw new IllegalArgumentException("Cache size cannot be negative.");
+        this.cacheMaxStudents = cacheMaxStudents;
+        return this;
+    }
+
+    /**
+     * Minimum time between two checks of the course catalog version; 0 checks on every lookup.
+     */
+    public long getCatalogCheckIntervalMillis() { return catalogCheckIntervalMillis; }
+    public DatabaseConfig setCatalogCheckIntervalMillis(long catalogCheckIntervalMillis) {
+        if (catalogCheckIntervalMillis < 0) throw new IllegalArgumentException("Catalog check interval cannot be negative.");
+        this.catalogCheckIntervalMillis = catalogCheckIntervalMillis;
+        return this;
+    }
+
+    /**
+     * The StudentManager implementation that StudentManagers creates.
+     */
+    public StorageBackend getBackend() { return backend; }
+    public DatabaseConfig setBackend(StorageBackend backend) {
+        this.backend = backend;
+        return this;
+    }
+
+    /**
+     * Directory of the segment files of the log backend.
+     */
+    public String getLogDirectory() { return logDirectory; }
+    public DatabaseConfig setLogDirectory(String logDirectory) {
+        if (logDirectory == null || logDirectory.isBlank()) throw new IllegalArgumentException("Log directory must not be blank.");
+        this.logDirectory = logDirectory;
+        return this;
+    }
+
+    /**
+     * Size at which the log backend seals the active segment and starts a new one.
+     */
+    public long getLogSegmentBytes() { return logSegmentBytes; }
+    public DatabaseConfig setLogSegmentBytes(long logSegmentBytes) {
+        if (logSegmentBytes < 1) throw new IllegalArgumentException("Segment size must be at least 1 byte.");
+        this.logSegmentBytes = logSegmentBytes;
+        return this;
+    }
+
+    /**
+     * When enabled, every write of the log backend is forced to disk before it returns.
+     * When disabled, a crash can lose the latest writes, but never corrupts older ones.
+     */
+    public boolean isLogSyncWrites() { return logSyncWrites; }
+    public DatabaseConfig setLogSyncWrites(boolean logSyncWrites) {
+        this.logSyncWrites = logSyncWrites;
+        return this;
+    }
+
+    /**
+     * Time between background compactions of the log backend; 0 disables them.
+     */
+    public long getLogCompactIntervalMillis() { return logCompactIntervalMillis; }
+    public DatabaseConfig setLogCompactIntervalMillis(long logCompactIntervalMillis) {
+        if (logCompactIntervalMillis < 0) throw new IllegalArgumentException("Log compaction interval cannot be negative.");
+        this.logCompactIntervalMillis = logCompactIntervalMillis;
+        return this;
+    }
+}
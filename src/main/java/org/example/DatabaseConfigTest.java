@@ -0,0 +1,31 @@
+package org.example;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class DatabaseConfigTest {
+
+    @Test
+    public void testInvalidSystemPropertyFailsAtStartup() {
+        System.setProperty("sms.pool.maxSize", "0");
+        try {
+            Assertions.assertThrows(IllegalArgumentException.class, DatabaseConfig::fromSystemProperties);
+        } finally {
+            System.clearProperty("sms.pool.maxSize");
+        }
+        Assertions.assertEquals(8, DatabaseConfig.fromSystemProperties().getPoolMaxSize());
+    }
+
+    @Test
+    public void testSettersRejectInvalidValues() {
+        DatabaseConfig config = new DatabaseConfig();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> config.setUrl(" "));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> config.setLogDirectory(""));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> config.setWalAutoCheckpointPages(-1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> config.setCheckpointIntervalMillis(-1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> config.setChangeLogCompactIntervalMillis(-1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> config.setLogCompactIntervalMillis(-1));
+        // 0 still disables the background tasks
+        config.setCheckpointIntervalMillis(0).setChangeLogCompactIntervalMillis(0).setLogCompactIntervalMillis(0);
+    }
+}
@@ -0,0 +1,79 @@
+package org.example;
+
+import java.util.Objects;
+
+/**
+ * Grade aggregates kept up to date by the database on every write.
+ * Like calculateAverageGrade, only grades above zero are counted.
+ * Sums are kept in hundredths (grades have at most two decimals), so they never drift.
+ */
+public class GradeStatistics {
+    private final long studentCount;
+    private final long gradeCount;
+    private final long sumCents;
+    private final long sumSquaresCents;
+    private final double minGrade;
+    private final double maxGrade;
+
+    public GradeStatistics(long studentCount, long gradeCount, long sumCents, long sumSquaresCents, double minGrade, double maxGrade) {
+        this.studentCount = studentCount;
+        this.gradeCount = gradeCount;
+        this.sumCents = sumCents;
+        this.sumSquaresCents = sumSquaresCents;
+        this.minGrade = minGrade;
+        this.maxGrade = maxGrade;
+    }
+
+    /**
+     * @return The number of stored students, including those without a grade.
+     */
+    public long getStudentCount() { return studentCount; }
+
+    /**
+     * @return The number of students with a grade above zero.
+     */
+    public long getGradeCount() { return gradeCount; }
+
+    public double getSum() { return sumCents / 100.0; }
+
+    public double getMin() { return gradeCount == 0 ? 0.0 : minGrade; }
+
+    public double getMax() { return gradeCount == 0 ? 0.0 : maxGrade; }
+
+    public double getAverage() {
+        return gradeCount == 0 ? 0.0 : (double) sumCents / gradeCount / 100.0;
+    }
+
+    /**
+     * @return The population variance of the counted grades.
+     */
+    public double getVariance() {
+        if (gradeCount == 0) return 0.0;
+        double mean = (double) sumCents / gradeCount;
+        double variance = (double) sumSquaresCents / gradeCount - mean * mean;
+        return Math.max(0.0, variance) / 10_000.0;
+    }
+
+    public double getStandardDeviation() { return Math.sqrt(getVariance()); }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        GradeStatistics that = (GradeStatistics) o;
+        return studentCount == that.studentCount && gradeCount == that.gradeCount && sumCents == that.sumCents
+                && sumSquaresCents == that.sumSquaresCents && Double.compare(getMin(), that.getMin()) == 0
+                && Double.compare(getMax(), that.getMax()) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(studentCount, gradeCount, sumCents, sumSquaresCents, getMin(), getMax());
+    }
+
+    @Override
+    public String toString() {
+        return String.format(java.util.Locale.US, "students=%d, graded=%d, avg=%.2f, min=%.2f, max=%.2f, stddev=%.2f",
+                studentCount, gradeCount, getAverage(), getMin(), getMax(), getStandardDeviation());
+    }
+}
@@ -0,0 +1,219 @@
+package org.example;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip streams that compress or decompress on a background thread.
+ * Bytes are passed between the caller and the codec thread in chunks through a bounded queue,
+ * so encoding rows and running Deflater/Inflater overlap instead of taking turns.
+ */
+final class GzipStreams {
+
+    private static final int CHUNK_BYTES = 1 << 16;
+    private static final int QUEUE_CHUNKS = 8;
+    private static final byte[] END = new byte[0];
+
+    private GzipStreams() {}
+
+    /**
+     * @return True if the path names a gzip file (".gz", e.g. "students.csv.gz").
+     */
+    static boolean isGzip(String path) {
+        return path.toLowerCase().endsWith(".gz");
+    }
+
+    /**
+     * Wraps a stream so that everything written is gzip-compressed on a "csv-gzip" thread.
+     * Closing the returned stream finishes the gzip trailer and closes the target.
+     * @param level The Deflater level, 0-9, or -1 for the default.
+     */
+    static OutputStream compressing(OutputStream target, int level) {
+        return new CompressingStream(target, level);
+    }
+
+    /**
+     * Wraps a gzip stream so that it is decompressed ahead of the reader on a "csv-gunzip" thread.
+     * Closing the returned stream stops the thread and closes the source.
+     */
+    static InputStream decompressing(InputStream source) {
+        return new DecompressingStream(source);
+    }
+
+    private static Thread start(Runnable task, String name) {
+        Thread t = new Thread(task, name);
+        t.setDaemon(true);
+        t.start();
+        return t;
+    }
+
+    private static class CompressingStream extends OutputStream {
+        private final BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(QUEUE_CHUNKS);
+        private final Thread compressor;
+        private byte[] chunk = new byte[CHUNK_BYTES];
+        private int size;
+        private volatile IOException failure;
+        private boolean closed;
+
+        CompressingStream(OutputStream target, int level) {
+            compressor = start(() -> compress(target, level), "csv-gzip");
+        }
+
+        private void compress(OutputStream target, int level) {
+            try (OutputStream gzip = new GZIPOutputStream(target, CHUNK_BYTES) {{ def.setLevel(level); }}) {
+                byte[] next;
+                while ((next = chunks.take()) != END) gzip.write(next);
+            } catch (IOException e) {
+                failure = e;
+                chunks.clear();
+            } catch (InterruptedException e) {
+                failure = new InterruptedIOException("Compression interrupted.");
+            }
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (size == chunk.length) hand();
+            chunk[size++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (size == chunk.length) hand();
+                int n = Math.min(len, chunk.length - size);
+                System.arraycopy(b, off, chunk, size, n);
+                size += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        /** Passes the filled chunk to the compressor; blocks while it is behind. */
+        private void hand() throws IOException {
+            put(size == chunk.length ? chunk : Arrays.copyOf(chunk, size));
+            chunk = new byte[CHUNK_BYTES];
+            size = 0;
+        }
+
+        private void put(byte[] item) throws IOException {
+            try {
+                while (!chunks.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                    if (failure != null || !compressor.isAlive()) break;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Compression interrupted.");
+            }
+            if (failure != null) throw failure;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            if (size > 0) hand();
+            put(END);
+            try {
+                compressor.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Compression interrupted.");
+            }
+            if (failure != null) throw failure;
+        }
+    }
+
+    private static class DecompressingStream extends InputStream {
+        private final BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(QUEUE_CHUNKS);
+        private final InputStream source;
+        private final Thread decompressor;
+        private byte[] chunk = new byte[0];
+        private int pos;
+        private volatile IOException failure;
+        private volatile boolean closed;
+
+        DecompressingStream(InputStream source) {
+            this.source = source;
+            decompressor = start(this::decompress, "csv-gunzip");
+        }
+
+        private void decompress() {
+            try (InputStream gzip = new GZIPInputStream(source, CHUNK_BYTES)) {
+                while (!closed) {
+                    byte[] next = gzip.readNBytes(CHUNK_BYTES);
+                    if (next.length == 0) break;
+                    if (!put(next)) return;
+                }
+            } catch (EOFException e) {
+                failure = new IOException("Truncated gzip data.", e);
+            } catch (IOException e) {
+                failure = e;
+            }
+            put(END);
+        }
+
+        /** Blocks while the reader is behind; gives up once the stream is closed. */
+        private boolean put(byte[] item) {
+            try {
+                while (!chunks.offer(item, 100, TimeUnit.MILLISECONDS)) {
+                    if (closed) return false;
+                }
+                return true;
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }
+
+        /** @return False at the end of the stream. */
+        private boolean fill() throws IOException {
+            if (chunk == END) return false;
+            try {
+                chunk = chunks.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Decompression interrupted.");
+            }
+            pos = 0;
+            if (chunk == END && failure != null) throw failure;
+            return chunk != END;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (pos == chunk.length && !fill()) return -1;
+            return chunk[pos++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) return 0;
+            if (pos == chunk.length && !fill()) return -1;
+            int n = Math.min(len, chunk.length - pos);
+            System.arraycopy(chunk, pos, b, off, n);
+            pos += n;
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            chunks.clear();
+            try {
+                decompressor.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package org.example;
+
+/**
+ * How a CSV import treats students whose ID already exists.
+ */
+public enum ImportMode {
+    /** Existing IDs are reported as errors and left unchanged. */
+    INSERT_ONLY,
+    /** Existing students get the name, age, grade and date of the file; courses of the file are added to theirs. */
+    UPSERT,
+    /** Like UPSERT, but afterwards each student is enrolled in exactly the courses listed in the file. */
+    REPLACE_ENROLLMENTS
+}
@@ -0,0 +1,57 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Outcome of a CSV import: how many rows were stored, the per-line errors and the throughput.
+ */
+public class ImportResult {
+
+    private static final int REPORTED_ERRORS = 5;
+
+    private final int successCount;
+    private final List<String> errors;
+    private final long elapsedNanos;
+
+    public ImportResult(int successCount, List<String> errors, long elapsedNanos) {
+        this.successCount = successCount;
+        this.errors = Collections.unmodifiableList(new ArrayList<>(errors));
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    public int getSuccessCount() { return successCount; }
+    public List<String> getErrors() { return errors; }
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    /**
+     * @return Processed data rows (stored and rejected) per second.
+     */
+    public double getRowsPerSecond() {
+        if (elapsedNanos <= 0) return 0.0;
+        return (successCount + errors.size()) * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * @throws StudentImportException with a summary of the first errors if any line failed.
+     */
+    public void throwIfFailed() {
+        if (errors.isEmpty()) return;
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("Import finished. Success: ").append(successCount).append(", Failed: ").append(errors.size()).append("\nErrors:\n");
+        for (int i = 0; i < Math.min(errors.size(), REPORTED_ERRORS); i++) {
+            sb.append("- ").append(errors.get(i)).append("\n");
+        }
+        if (errors.size() > REPORTED_ERRORS) sb.append("...and ").append(errors.size() - REPORTED_ERRORS).append(" more.");
+        throw new StudentImportException(sb.toString());
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.US, "Imported %d rows, %d failed, in %.1f ms (%.0f rows/s)",
+                successCount, errors.size(), elapsedNanos / 1e6, getRowsPerSecond());
+    }
+}
@@ -0,0 +1,475 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * StudentManager that keeps everything in memory, for tests and as a storage-free baseline in benchmarks.
+ *
+ * Behaves like StudentManagerImpl: the same validation, enrollments that must name a known course,
+ * cascading deletes, listing orders, CSV format and import modes. Students live in a skip-list map
+ * ordered by ID, with secondary skip-list indexes ordered by (name, ID) and (grade, ID), a
+ * course-to-students index and a TrigramIndex for search. Grade statistics are maintained on
+ * every write, like the grade_stats triggers.
+ *
+ * Writes are serialized on this object (the equivalent of the single writer). Point reads run without
+ * locks: an update swaps the student in the ID map in one step. Listings walk the ordered indexes
+ * under a read lock that every index change excludes, so, as with SQLite, they never see a write
+ * half-applied. Stored students are private copies and every read returns fresh copies.
+ */
+public class InMemoryStudentManager implements StudentManager {
+    private static final Logger LOGGER = Logger.getLogger(InMemoryStudentManager.class.getName());
+
+    private static final int SEARCH_RESULT_LIMIT = 500;
+    private static final int EXPORT_BUFFER_CHARS = 1 << 16;
+    // Validation needs a name and age; only the sort value and ID of a probe are compared
+    private static final String PROBE_NAME = "Probe";
+    private static final int PROBE_AGE = 18;
+    private static final Student LOWEST_POSITIVE_GRADE = gradeProbe(0.01, "");
+
+    private final int gzipLevel;
+    private final ConcurrentSkipListMap<String, Student> byId = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListSet<Student> byName = new ConcurrentSkipListSet<>(StudentSort.NAME.comparator());
+    private final ConcurrentSkipListSet<Student> byGrade = new ConcurrentSkipListSet<>(StudentSort.GRADE.comparator());
+    private final ConcurrentHashMap<String, Set<String>> studentsByCourse = new ConcurrentHashMap<>();
+    private final TrigramIndex searchIndex = new TrigramIndex();
+    private final ReadWriteLock indexLock = new ReentrantReadWriteLock();
+
+    private volatile Map<String, CourseCatalog.Course> courses = Collections.emptyMap();
+    private volatile Map<String, String> courseNames = Collections.emptyMap();
+    private volatile Map<String, Integer> courseCredits = Collections.emptyMap();
+    private volatile GradeStatistics statistics = new GradeStatistics(0, 0, 0, 0, 0, 0);
+    private long gradeCount;
+    private long sumCents;
+    private long sumSquaresCents;
+
+    /**
+     * Creates an empty manager with the default courses.
+     */
+    public InMemoryStudentManager() {
+        this(new DatabaseConfig());
+    }
+
+    /**
+     * @param config Only the export settings (gzip level) apply.
+     */
+    public InMemoryStudentManager(DatabaseConfig config) {
+        this.gzipLevel = config.getGzipLevel();
+        for (CourseCatalog.Course c : CourseCatalog.DEFAULT_COURSES) addCourse(c.getCode(), c.getName(), c.getCredits());
+    }
+
+    // Course Management
+
+    /**
+     * Adds a course or replaces its name and credits.
+     */
+    public synchronized void addCourse(String courseCode, String courseName, int credits) {
+        Map<String, CourseCatalog.Course> next = new ConcurrentSkipListMap<>(courses);
+        next.put(courseCode, new CourseCatalog.Course(courseCode, courseName, credits));
+        setCourses(next);
+    }
+
+    /**
+     * Removes a course and, like ON DELETE CASCADE, every enrollment in it.
+     */
+    public synchronized void removeCourse(String courseCode) {
+        if (!courses.containsKey(courseCode)) return;
+        Set<String> enrolled = studentsByCourse.remove(courseCode);
+        if (enrolled != null) {
+            for (String studentID : enrolled) {
+                Student stored = byId.get(studentID);
+                ArrayList<String> remaining = new ArrayList<>(stored.getCourses());
+                remaining.remove(courseCode);
+                replace(stored, withValues(stored, stored.getName(), stored.getAge(), stored.getGrade(), stored.getEnrollmentDate(), remaining));
+            }
+        }
+        Map<String, CourseCatalog.Course> next = new ConcurrentSkipListMap<>(courses);
+        next.remove(courseCode);
+        setCourses(next);
+    }
+
+    /**
+     * Publishes new immutable course maps, as CourseCatalog does after a reload.
+     */
+    private void setCourses(Map<String, CourseCatalog.Course> next) {
+        Map<String, String> names = new LinkedHashMap<>();
+        Map<String, Integer> credits = new LinkedHashMap<>();
+        for (CourseCatalog.Course c : next.values()) {
+            names.put(c.getCode(), c.getName());
+            credits.put(c.getCode(), c.getCredits());
+        }
+        courseNames = Collections.unmodifiableMap(names);
+        courseCredits = Collections.unmodifiableMap(credits);
+        courses = Collections.unmodifiableMap(next);
+    }
+
+    @Override
+    public Map<String, String> getAllCourses() {
+        return courseNames;
+    }
+
+    @Override
+    public Map<String, Integer> getCourseCredits() {
+        return courseCredits;
+    }
+
+    // Database Operations
+
+    @Override
+    public synchronized void addStudent(Student student) {
+        String error = checkInsert(student, false);
+        if (error != null) throw new RuntimeException("Error adding student: " + error);
+        insert(copyOf(student));
+        LOGGER.info("Student added: " + student.getName());
+    }
+
+    /**
+     * Keeps the stored enrollment date, like StudentManagerImpl; the courses are replaced.
+     */
+    @Override
+    public synchronized void updateStudent(String studentID, Student updatedStudent) {
+        Student stored = byId.get(studentID);
+        if (stored == null) throw new RuntimeException("Student not found: " + studentID);
+        String unknown = unknownCourse(updatedStudent.getCourses());
+        if (unknown != null) throw new RuntimeException("Error updating student: unknown course " + unknown);
+        replace(stored, withValues(stored, updatedStudent.getName(), updatedStudent.getAge(), updatedStudent.getGrade(),
+                stored.getEnrollmentDate(), updatedStudent.getCourses()));
+        LOGGER.info("Student updated: " + studentID);
+    }
+
+    @Override
+    public synchronized void removeStudent(String studentID) {
+        Student stored = byId.get(studentID);
+        if (stored != null) delete(stored);
+        LOGGER.info("Student removed: " + studentID);
+    }
+
+    /**
+     * Like StudentManagerImpl, unknown IDs are reported as failures.
+     */
+    @Override
+    public synchronized BulkResult removeStudents(List<String> studentIDs) {
+        List<String> errors = new ArrayList<>(studentIDs.size());
+        for (String studentID : studentIDs) {
+            Student stored = byId.get(studentID);
+            if (stored == null) {
+                errors.add("Student not found: " + studentID);
+            } else {
+                delete(stored);
+                errors.add(null);
+            }
+        }
+        return new BulkResult(errors);
+    }
+
+    // Search and Display
+
+    @Override
+    public Student findStudent(String studentID) {
+        Student stored = byId.get(studentID);
+        return stored != null ? stored.copy() : null;
+    }
+
+    @Override
+    public List<Student> displayAllStudents() {
+        indexLock.readLock().lock();
+        try {
+            return copies(byName, Integer.MAX_VALUE);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Case- and accent-insensitive substring search over name and ID, as with the trigram search
+     * option of StudentManagerImpl.
+     */
+    @Override
+    public List<Student> searchStudents(String query) {
+        if (query == null || query.isBlank()) return displayAllStudents();
+        List<Student> students = new ArrayList<>();
+        for (String id : searchIndex.search(query.trim(), SEARCH_RESULT_LIMIT)) {
+            Student s = findStudent(id);
+            if (s != null) students.add(s);
+        }
+        return students;
+    }
+
+    @Override
+    public StudentPage listStudents(PageKey afterKey, int limit, StudentSort sort) {
+        if (limit < 1) throw new IllegalArgumentException("Page size must be at least 1.");
+        Iterable<Student> ordered;
+        if (sort == StudentSort.ID) {
+            ordered = afterKey == null ? byId.values() : byId.tailMap(afterKey.getStudentID(), false).values();
+        } else {
+            NavigableSet<Student> index = sort == StudentSort.NAME ? byName : byGrade;
+            ordered = afterKey == null ? index : index.tailSet(probe(afterKey, sort), false);
+        }
+        List<Student> students;
+        indexLock.readLock().lock();
+        try {
+            students = copies(ordered, limit + 1);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+        PageKey nextKey = null;
+        if (students.size() > limit) {
+            students.remove(limit);
+            nextKey = PageKey.after(students.get(limit - 1), sort);
+        }
+        return new StudentPage(students, nextKey);
+    }
+
+    /**
+     * Streams a consistent snapshot: only the references are collected under the read lock, so the
+     * action runs without it and may write.
+     */
+    @Override
+    public void forEachStudent(Consumer<? super Student> action) {
+        for (Student s : snapshotByName()) action.accept(s.copy());
+    }
+
+    /**
+     * @return The stored students ordered by name, as of one point in time. Stored rows are never changed in place.
+     */
+    private List<Student> snapshotByName() {
+        indexLock.readLock().lock();
+        try {
+            return new ArrayList<>(byName);
+        } finally {
+            indexLock.readLock().unlock();
+        }
+    }
+
+    // Analytics
+
+    @Override
+    public double calculateAverageGrade() {
+        return statistics.getAverage();
+    }
+
+    @Override
+    public GradeStatistics getGradeStatistics() {
+        return statistics;
+    }
+
+    // Import / Export
+
+    @Override
+    public void exportStudentsToCSV(String filePath) {
+        long start = System.nanoTime();
+        long rows = 0;
+        try (Writer writer = StudentCsv.openWriter(filePath, gzipLevel, EXPORT_BUFFER_CHARS)) {
+            StudentCsv.RowWriter out = new StudentCsv.RowWriter(writer, EXPORT_BUFFER_CHARS);
+            out.writeHeader();
+            for (Student s : snapshotByName()) {
+                out.writeRow(s.getStudentID(), s.getName(), s.getAge(), s.getGrade(), s.getEnrollmentDate().toString(),
+                        s.getCourses().isEmpty() ? null : String.join(";", s.getCourses()));
+                rows++;
+            }
+            out.flush();
+        } catch (IOException e) { throw new RuntimeException("Export error: " + e.getMessage()); }
+
+        long elapsed = System.nanoTime() - start;
+        LOGGER.info(String.format(Locale.US, "Exported %d rows in %.1f ms (%.0f rows/s)",
+                rows, elapsed / 1e6, elapsed == 0 ? 0.0 : rows * 1e9 / elapsed));
+    }
+
+    @Override
+    public void importStudentsFromCSV(String filePath) {
+        importStudentsFromCSV(filePath, ImportMode.INSERT_ONLY);
+    }
+
+    /**
+     * Parses with the same readers as StudentManagerImpl, so accepted rows and error messages match.
+     */
+    @Override
+    public void importStudentsFromCSV(String filePath, ImportMode mode) {
+        long start = System.nanoTime();
+        List<String> errors = new ArrayList<>();
+        int[] stored = {0};
+        try {
+            StudentCsv.forEachRow(filePath, row -> {
+                if (importRow(row, mode, errors)) stored[0]++;
+            });
+        } catch (IOException e) {
+            throw new StudentImportException("File error: " + e.getMessage());
+        }
+        ImportResult result = new ImportResult(stored[0], errors, System.nanoTime() - start);
+        LOGGER.info(result.toString());
+        result.throwIfFailed();
+    }
+
+    /**
+     * Applies one parsed row with the semantics of BulkCsvImporter.
+     * @return True if the row was stored.
+     */
+    private synchronized boolean importRow(StudentCsv.Row row, ImportMode mode, List<String> errors) {
+        if (!row.isValid()) {
+            errors.add("Line " + row.lineNumber + ": " + row.error);
+            return false;
+        }
+        Student s = row.student;
+        Student stored = byId.get(s.getStudentID());
+        if (stored == null || mode == ImportMode.INSERT_ONLY) {
+            // The merge modes ignore repeated courses (ON CONFLICT DO NOTHING)
+            String error = checkInsert(s, mode != ImportMode.INSERT_ONLY);
+            if (error != null) {
+                errors.add("Line " + row.lineNumber + ": Error adding student: " + error);
+                return false;
+            }
+            insert(copyOf(s));
+            return true;
+        }
+        String unknown = unknownCourse(s.getCourses());
+        if (unknown != null) {
+            errors.add("Line " + row.lineNumber + ": Error adding student: unknown course " + unknown);
+            return false;
+        }
+        List<String> courses = new ArrayList<>(s.getCourses());
+        if (mode == ImportMode.UPSERT) courses.addAll(stored.getCourses());
+        replace(stored, withValues(stored, s.getName(), s.getAge(), s.getGrade(), s.getEnrollmentDate(), courses));
+        return true;
+    }
+
+    /**
+     * @return Why the student cannot be inserted (duplicate ID, duplicate or unknown course), or null.
+     */
+    private String checkInsert(Student student, boolean allowRepeatedCourses) {
+        if (byId.containsKey(student.getStudentID())) return "student already exists: " + student.getStudentID();
+        Set<String> seen = new TreeSet<>();
+        for (String code : student.getCourses()) {
+            if (!seen.add(code) && !allowRepeatedCourses) return "duplicate course " + code;
+        }
+        String unknown = unknownCourse(student.getCourses());
+        return unknown != null ? "unknown course " + unknown : null;
+    }
+
+    private String unknownCourse(List<String> codes) {
+        Map<String, CourseCatalog.Course> known = courses;
+        for (String code : codes) {
+            if (!known.containsKey(code)) return code;
+        }
+        return null;
+    }
+
+    /**
+     * A stored copy with its courses sorted and without duplicates, the order in which the database returns them.
+     */
+    private static Student copyOf(Student s) {
+        return withValues(s, s.getName(), s.getAge(), s.getGrade(), s.getEnrollmentDate(), s.getCourses());
+    }
+
+    private static Student withValues(Student s, String name, int age, double grade, LocalDate date, List<String> courses) {
+        return new Student(s.getStudentID(), name, age, grade, date, new ArrayList<>(new TreeSet<>(courses)));
+    }
+
+    private static Student probe(PageKey key, StudentSort sort) {
+        if (sort == StudentSort.NAME) {
+            return new Student(key.getStudentID(), (String) key.getSortValue(), PROBE_AGE, 0, null, null);
+        }
+        return gradeProbe(((Number) key.getSortValue()).doubleValue(), key.getStudentID());
+    }
+
+    private static Student gradeProbe(double grade, String studentID) {
+        return new Student(studentID, PROBE_NAME, PROBE_AGE, grade, null, null);
+    }
+
+    private static List<Student> copies(Iterable<Student> students, int limit) {
+        List<Student> result = new ArrayList<>();
+        for (Student s : students) {
+            if (result.size() == limit) break;
+            result.add(s.copy());
+        }
+        return result;
+    }
+
+    private void insert(Student s) {
+        indexLock.writeLock().lock();
+        try {
+            byId.put(s.getStudentID(), s);
+            index(s);
+            addGrade(s.getGrade(), 1);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    private void delete(Student s) {
+        indexLock.writeLock().lock();
+        try {
+            unindex(s);
+            searchIndex.remove(s.getStudentID());
+            byId.remove(s.getStudentID());
+            addGrade(s.getGrade(), -1);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Swaps the stored row with put, so findStudent never misses the student; listings wait for the whole swap.
+     */
+    private void replace(Student stored, Student updated) {
+        indexLock.writeLock().lock();
+        try {
+            unindex(stored);
+            byId.put(updated.getStudentID(), updated);
+            index(updated);
+            addGrade(stored.getGrade(), -1);
+            addGrade(updated.getGrade(), 1);
+        } finally {
+            indexLock.writeLock().unlock();
+        }
+    }
+
+    private void index(Student s) {
+        byName.add(s);
+        byGrade.add(s);
+        for (String code : s.getCourses()) studentsByCourse.computeIfAbsent(code, c -> ConcurrentHashMap.newKeySet()).add(s.getStudentID());
+        searchIndex.put(s.getStudentID(), s.getName());
+    }
+
+    private void unindex(Student s) {
+        byName.remove(s);
+        byGrade.remove(s);
+        for (String code : s.getCourses()) {
+            Set<String> enrolled = studentsByCourse.get(code);
+            if (enrolled != null) enrolled.remove(s.getStudentID());
+        }
+    }
+
+    /**
+     * Adjusts the running sums like the grade_stats triggers; min and max come from the grade index.
+     */
+    private void addGrade(double grade, int sign) {
+        if (grade > 0) {
+            long cents = Math.round(grade * 100);
+            gradeCount += sign;
+            sumCents += sign * cents;
+            sumSquaresCents += sign * cents * cents;
+        }
+        // Grades have two decimals, so the lowest grade above zero is at or after LOWEST_POSITIVE_GRADE
+        Student lowest = byGrade.ceiling(LOWEST_POSITIVE_GRADE);
+        double min = lowest != null ? lowest.getGrade() : 0;
+        double max = lowest != null ? byGrade.last().getGrade() : 0;
+        statistics = new GradeStatistics(byId.size(), gradeCount, sumCents, sumSquaresCents, min, max);
+    }
+}
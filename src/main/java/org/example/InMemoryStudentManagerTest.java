@@ -0,0 +1,135 @@
+package org.example;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.example.StudentFixtures.apply;
+import static org.example.StudentFixtures.databaseConfig;
+import static org.example.StudentFixtures.describe;
+import static org.example.StudentFixtures.newDatabaseFile;
+import static org.example.StudentFixtures.newDatabaseManager;
+import static org.example.StudentFixtures.student;
+
+/**
+ * Runs the same operations against InMemoryStudentManager and StudentManagerImpl and compares the results.
+ */
+public class InMemoryStudentManagerTest {
+
+    private static StudentManagerImpl newNgramDatabaseManager() throws Exception {
+        return new StudentManagerImpl(databaseConfig(newDatabaseFile()).setNgramSearch(true));
+    }
+
+    @Test
+    public void testSameStateAsDatabase() throws Exception {
+        InMemoryStudentManager memory = new InMemoryStudentManager();
+        try (StudentManagerImpl database = newNgramDatabaseManager()) {
+            apply(memory);
+            apply(database);
+            Assertions.assertEquals(describe(database.displayAllStudents()), describe(memory.displayAllStudents()));
+            Assertions.assertEquals(database.getGradeStatistics(), memory.getGradeStatistics());
+            Assertions.assertEquals(describe(database.searchStudents("asa")), describe(memory.searchStudents("asa")));
+            Assertions.assertEquals(database.getAllCourses(), memory.getAllCourses());
+            Assertions.assertEquals(database.getCourseCredits(), memory.getCourseCredits());
+            for (StudentSort sort : StudentSort.values()) {
+                StudentPage expected = database.listStudents(null, 2, sort);
+                StudentPage actual = memory.listStudents(null, 2, sort);
+                Assertions.assertEquals(describe(expected.getStudents()), describe(actual.getStudents()));
+                Assertions.assertEquals(describe(database.listStudents(expected.getNextKey(), 2, sort).getStudents()),
+                        describe(memory.listStudents(actual.getNextKey(), 2, sort).getStudents()));
+            }
+        }
+    }
+
+    @Test
+    public void testRejectsWhatTheDatabaseRejects() {
+        InMemoryStudentManager memory = new InMemoryStudentManager();
+        memory.addStudent(student("S1", "Anna Berg", 20, 91.5));
+        Assertions.assertThrows(RuntimeException.class, () -> memory.addStudent(student("S1", "Other Name", 20, 50)));
+        Assertions.assertThrows(RuntimeException.class, () -> memory.addStudent(student("S2", "Ben Cole", 20, 50, "NOPE101")));
+        Assertions.assertThrows(RuntimeException.class, () -> memory.updateStudent("S9", student("S9", "Ben Cole", 20, 50)));
+        BulkResult removed = memory.removeStudents(Arrays.asList("S1", "S9"));
+        Assertions.assertTrue(removed.isSuccess(0));
+        Assertions.assertFalse(removed.isSuccess(1));
+    }
+
+    @Test
+    public void testRepeatedIdIsRemovedOnce() throws Exception {
+        InMemoryStudentManager memory = new InMemoryStudentManager();
+        try (StudentManagerImpl database = newDatabaseManager()) {
+            for (StudentManager manager : List.of(memory, database)) {
+                manager.addStudent(student("S1", "Anna Berg", 20, 91.5));
+                BulkResult removed = manager.removeStudents(Arrays.asList("S1", "S1", "S9"));
+                Assertions.assertTrue(removed.isSuccess(0));
+                Assertions.assertFalse(removed.isSuccess(1));
+                Assertions.assertFalse(removed.isSuccess(2));
+                Assertions.assertEquals(1, removed.getSuccessCount());
+            }
+        }
+    }
+
+    @Test
+    public void testCourseDeleteCascades() {
+        InMemoryStudentManager memory = new InMemoryStudentManager();
+        memory.addStudent(student("S1", "Anna Berg", 20, 91.5, "CS101", "MATH101"));
+        memory.removeCourse("CS101");
+        Assertions.assertEquals(List.of("MATH101"), memory.findStudent("S1").getCourses());
+        Assertions.assertFalse(memory.getAllCourses().containsKey("CS101"));
+    }
+
+    @Test
+    public void testCsvRoundTripMatchesDatabase() throws Exception {
+        Path csv = Files.createTempFile("sms-parity", ".csv");
+        csv.toFile().deleteOnExit();
+        Files.writeString(csv, StudentCsv.HEADER + "\n"
+                + "S1,Anna Berg,20,91.5,2024-09-01,CS101;MATH101\n"
+                + "S2,Ben Cole,22,67.25,2024-09-01,HIST101\n"
+                + "S1,Anna Berg,21,92,2024-09-01,PHYS101\n"
+                + "S3,Bad@Name,22,67.25,2024-09-01,\n");
+
+        InMemoryStudentManager memory = new InMemoryStudentManager();
+        try (StudentManagerImpl database = newNgramDatabaseManager()) {
+            for (ImportMode mode : ImportMode.values()) {
+                StudentImportException fromDatabase = Assertions.assertThrows(StudentImportException.class,
+                        () -> database.importStudentsFromCSV(csv.toString(), mode));
+                StudentImportException fromMemory = Assertions.assertThrows(StudentImportException.class,
+                        () -> memory.importStudentsFromCSV(csv.toString(), mode));
+                Assertions.assertEquals(fromDatabase.getMessage().lines().count(), fromMemory.getMessage().lines().count());
+                Assertions.assertEquals(describe(database.displayAllStudents()), describe(memory.displayAllStudents()));
+            }
+
+            Path fromDatabase = Files.createTempFile("sms-parity-db", ".csv");
+            Path fromMemory = Files.createTempFile("sms-parity-memory", ".csv");
+            fromDatabase.toFile().deleteOnExit();
+            fromMemory.toFile().deleteOnExit();
+            database.exportStudentsToCSV(fromDatabase.toString());
+            memory.exportStudentsToCSV(fromMemory.toString());
+            Assertions.assertEquals(Files.readString(fromDatabase), Files.readString(fromMemory));
+        }
+    }
+
+    @Test
+    public void testReadersNeverMissAStudentDuringUpdates() throws Exception {
+        InMemoryStudentManager memory = new InMemoryStudentManager();
+        memory.addStudent(student("S1", "Anna Berg", 20, 91.5, "CS101"));
+        memory.addStudent(student("S2", "Ben Cole", 22, 67.25));
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 2000; i++) {
+                // Alternate the name, the grade and the courses, so every index position changes
+                memory.updateStudent("S1", i % 2 == 0 ? student("S1", "Carl Eng", 21, 55.5, "MATH101")
+                        : student("S1", "Anna Berg", 20, 91.5, "CS101"));
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            Assertions.assertNotNull(memory.findStudent("S1"));
+            Assertions.assertEquals(2, memory.displayAllStudents().size());
+            Assertions.assertEquals(2, memory.listStudents(null, 10, StudentSort.GRADE).getStudents().size());
+        }
+        writer.join();
+    }
+}
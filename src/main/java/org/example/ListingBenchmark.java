@@ -0,0 +1,115 @@
+package org.example;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark for listing all students.
+ * Compares the old per-student enrollment lookup (N+1 statements) with the aggregated single query
+ * used by StudentManagerImpl.displayAllStudents().
+ *
+ * Usage: java org.example.ListingBenchmark [rowCounts...]   (default: 10000 100000 1000000)
+ */
+public class ListingBenchmark {
+
+    private static final String[] COURSES = {"CS101", "MATH101", "HIST101", "PHYS101"};
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = args.length == 0 ? new int[]{10_000, 100_000, 1_000_000} : new int[args.length];
+        for (int i = 0; i < args.length; i++) sizes[i] = Integer.parseInt(args[i]);
+
+        System.out.printf("%10s %14s %16s %10s%n", "rows", "N+1 (ms)", "aggregated (ms)", "speedup");
+        for (int size : sizes) {
+            File db = File.createTempFile("listing-bench-", ".db");
+            String url = "jdbc:sqlite:" + db.getAbsolutePath();
+            try (StudentManagerImpl manager = new StudentManagerImpl(new DatabaseConfig().setUrl(url))) {
+                populate(url, size);
+
+                long start = System.nanoTime();
+                int legacyRows = listWithPerRowLookup(url).size();
+                long legacyNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                int rows = manager.displayAllStudents().size();
+                long aggregatedNanos = System.nanoTime() - start;
+
+                if (rows != legacyRows) throw new IllegalStateException("Row count mismatch: " + rows + " vs " + legacyRows);
+                System.out.printf("%10d %14.1f %16.1f %9.1fx%n", size,
+                        legacyNanos / 1e6, aggregatedNanos / 1e6, (double) legacyNanos / aggregatedNanos);
+            } finally {
+                db.delete();
+            }
+        }
+    }
+
+    /**
+     * Inserts generated students with one or two enrollments each.
+     */
+    private static void populate(String url, int size) throws SQLException {
+        Random random = new Random(42);
+        try (Connection conn = DriverManager.getConnection(url);
+             PreparedStatement student = conn.prepareStatement("INSERT INTO students(studentID, name, age, grade, enrollmentDate) VALUES(?,?,?,?,?)");
+             PreparedStatement enroll = conn.prepareStatement("INSERT INTO enrollments(studentID, courseCode) VALUES(?,?)")) {
+            conn.setAutoCommit(false);
+            for (int i = 0; i < size; i++) {
+                String id = String.format("S%08d", i);
+                student.setString(1, id);
+                student.setString(2, "Student " + (char) ('A' + random.nextInt(26)) + (char) ('a' + random.nextInt(26)));
+                student.setInt(3, 18 + random.nextInt(50));
+                student.setDouble(4, random.nextInt(10_001) / 100.0);
+                student.setString(5, LocalDate.of(2020, 1, 1).plusDays(random.nextInt(1500)).toString());
+                student.addBatch();
+
+                int first = random.nextInt(COURSES.length);
+                enroll.setString(1, id);
+                enroll.setString(2, COURSES[first]);
+                enroll.addBatch();
+                if (random.nextBoolean()) {
+                    enroll.setString(1, id);
+                    enroll.setString(2, COURSES[(first + 1) % COURSES.length]);
+                    enroll.addBatch();
+                }
+                if (i % 10_000 == 9_999) {
+                    student.executeBatch();
+                    enroll.executeBatch();
+                }
+            }
+            student.executeBatch();
+            enroll.executeBatch();
+            conn.commit();
+        }
+    }
+
+    /**
+     * The listing as it was implemented before: one enrollment query per student row.
+     */
+    private static List<Student> listWithPerRowLookup(String url) throws SQLException {
+        List<Student> students = new ArrayList<>();
+        try (Connection conn = DriverManager.getConnection(url);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM students ORDER BY name")) {
+            while (rs.next()) {
+                String id = rs.getString("studentID");
+                ArrayList<String> courses = new ArrayList<>();
+                try (PreparedStatement pstmt = conn.prepareStatement("SELECT courseCode FROM enrollments WHERE studentID = ?")) {
+                    pstmt.setString(1, id);
+                    try (ResultSet rsC = pstmt.executeQuery()) {
+                        while (rsC.next()) courses.add(rsC.getString("courseCode"));
+                    }
+                }
+                students.add(new Student(id, rs.getString("name"), rs.getInt("age"), rs.getDouble("grade"),
+                        LocalDate.parse(rs.getString("enrollmentDate")), courses));
+            }
+        }
+        return students;
+    }
+}
@@ -0,0 +1,196 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * One append-only file of the student log.
+ *
+ * Records are framed as [int payload length][int CRC32 of the payload][payload]. Appends go to the end
+ * with positional writes and reads use positional reads, so readers never share a file position with
+ * the writer. A scan stops at the first frame that is incomplete or fails its checksum: that is where
+ * a crash interrupted the last append.
+ */
+final class LogSegment implements Closeable {
+    static final int HEADER_BYTES = 8;
+    static final int MAX_RECORD_BYTES = 1 << 20;
+
+    private static final Pattern FILE_NAME = Pattern.compile("segment-(\\d+)\\.log");
+    private static final int SCAN_BUFFER_BYTES = 1 << 16;
+
+    /**
+     * Receives each valid record of a scan; the frame buffer is only valid during the call.
+     */
+    interface RecordVisitor {
+        void accept(long offset, ByteBuffer frame) throws IOException;
+    }
+
+    private final int id;
+    private final Path path;
+    private final FileChannel channel;
+    private final AtomicLong liveBytes = new AtomicLong();
+    private volatile long size;
+
+    private LogSegment(int id, Path path, FileChannel channel) throws IOException {
+        this.id = id;
+        this.path = path;
+        this.channel = channel;
+        this.size = channel.size();
+    }
+
+    /**
+     * Opens the segment with the given number in the directory, creating an empty file if needed.
+     */
+    static LogSegment open(Path directory, int id) throws IOException {
+        Path path = directory.resolve(fileName(id));
+        return new LogSegment(id, path, FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+    }
+
+    static String fileName(int id) {
+        return String.format("segment-%06d.log", id);
+    }
+
+    /**
+     * @return The segment number of a segment file name, or -1 for any other file.
+     */
+    static int parseId(String fileName) {
+        Matcher m = FILE_NAME.matcher(fileName);
+        return m.matches() ? Integer.parseInt(m.group(1)) : -1;
+    }
+
+    /**
+     * Frames a payload: the bytes written to the segment for one record.
+     */
+    static ByteBuffer frame(byte[] payload, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, length);
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_BYTES + length);
+        frame.putInt(length).putInt((int) crc.getValue()).put(payload, 0, length);
+        return frame.flip();
+    }
+
+    int getId() { return id; }
+    Path getPath() { return path; }
+    long size() { return size; }
+
+    /**
+     * Bytes of records that the index still points to; the rest is garbage for compaction.
+     */
+    long getLiveBytes() { return liveBytes.get(); }
+    void addLiveBytes(long delta) { liveBytes.addAndGet(delta); }
+
+    /**
+     * Appends whole frames. On failure the segment is cut back to its previous end, so a partial
+     * write never ends up in front of later records.
+     * @return The offset of the first appended byte.
+     */
+    long append(ByteBuffer frames) throws IOException {
+        long offset = size;
+        long position = offset;
+        try {
+            while (frames.hasRemaining()) position += channel.write(frames, position);
+        } catch (IOException e) {
+            try {
+                channel.truncate(offset);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        size = position;
+        return offset;
+    }
+
+    void force() throws IOException {
+        channel.force(false);
+    }
+
+    /**
+     * Reads the frame that starts at the given offset.
+     */
+    ByteBuffer read(long offset, int frameLength) throws IOException {
+        ByteBuffer frame = ByteBuffer.allocate(frameLength);
+        long position = offset;
+        while (frame.hasRemaining()) {
+            int n = channel.read(frame, position);
+            if (n < 0) throw new IOException("Unexpected end of " + path + " at offset " + position);
+            position += n;
+        }
+        return frame.flip();
+    }
+
+    /**
+     * Visits the records up to the current end of the segment, in file order.
+     * @return The end of the last valid record; less than size() if the tail is torn or corrupt.
+     */
+    long scan(RecordVisitor visitor) throws IOException {
+        long end = size;
+        long offset = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_BYTES).flip();
+        CRC32 crc = new CRC32();
+        while (offset < end) {
+            buffer = fill(buffer, offset, HEADER_BYTES, end);
+            if (buffer.remaining() < HEADER_BYTES) break;
+            int length = buffer.getInt(buffer.position());
+            int checksum = buffer.getInt(buffer.position() + 4);
+            if (length < 1 || length > MAX_RECORD_BYTES) break;
+            buffer = fill(buffer, offset, HEADER_BYTES + length, end);
+            if (buffer.remaining() < HEADER_BYTES + length) break;
+
+            crc.reset();
+            crc.update(buffer.slice(buffer.position() + HEADER_BYTES, length));
+            if ((int) crc.getValue() != checksum) break;
+            visitor.accept(offset, buffer.slice(buffer.position(), HEADER_BYTES + length));
+            buffer.position(buffer.position() + HEADER_BYTES + length);
+            offset += HEADER_BYTES + length;
+        }
+        return offset;
+    }
+
+    /**
+     * Makes at least the needed bytes available from the buffer position, which is at the given file offset.
+     */
+    private ByteBuffer fill(ByteBuffer buffer, long offset, int needed, long end) throws IOException {
+        if (buffer.remaining() >= needed) return buffer;
+        ByteBuffer next = buffer.capacity() >= needed ? buffer.compact() : ByteBuffer.allocate(needed).put(buffer);
+        long position = offset + next.position();
+        next.limit((int) Math.min(next.capacity(), next.position() + (end - position)));
+        while (next.hasRemaining()) {
+            int n = channel.read(next, position);
+            if (n < 0) break;
+            position += n;
+        }
+        return next.flip();
+    }
+
+    /**
+     * Cuts the segment at the given size, dropping a torn tail.
+     */
+    void truncate(long newSize) throws IOException {
+        channel.truncate(newSize);
+        channel.force(true);
+        size = newSize;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+
+    @Override
+    public String toString() { return path.getFileName().toString(); }
+}
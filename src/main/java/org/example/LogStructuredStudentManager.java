@@ -0,0 +1,956 @@
+package org.example;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * StudentManager on an append-only log of student records (Bitcask style), as an alternative to SQLite.
+ *
+ * Every write appends a full record (PUT) or a tombstone (DELETE) to the active LogSegment; a segment
+ * that reaches the configured size is sealed and a new one is started. An in-memory hash index maps each
+ * student ID to the location of its latest record, so a lookup is one positional read. The ID, name and
+ * grade of every student are also kept in skip-list sets ordered like InMemoryStudentManager's indexes,
+ * so a page or a streamed listing reads only its own records. displayAllStudents scans the segments
+ * sequentially and keeps the records the index still points to.
+ *
+ * On startup the segments are replayed in order to rebuild the index; a torn or corrupt tail of the last
+ * segment (a crash during an append) is cut off. A background compactor rewrites sealed segments in which
+ * less than half of the bytes are live and swaps the result in with an atomic rename.
+ *
+ * Validation, listing orders, CSV format and import modes are those of InMemoryStudentManager and
+ * StudentManagerImpl. The courses are the fixed default catalog. Writes are serialized on this object
+ * and each call is one append (and one fsync with sms.log.syncWrites); reads run concurrently.
+ */
+public class LogStructuredStudentManager implements StudentManager, AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(LogStructuredStudentManager.class.getName());
+
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final String COMPACT_SUFFIX = ".compact";
+    // A sealed segment is rewritten once less than half of its bytes are live
+    private static final double COMPACT_LIVE_RATIO = 0.5;
+    private static final int MAX_GRADE_CENTS = 10_000;
+    private static final int SEARCH_RESULT_LIMIT = 500;
+    private static final int EXPORT_BUFFER_CHARS = 1 << 16;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final boolean syncWrites;
+    private final int importChunkSize;
+    private final int gzipLevel;
+    private final Map<String, String> courseNames;
+    private final Map<String, Integer> courseCredits;
+
+    private static final Comparator<StudentKey> ID_ORDER = Comparator.comparing(k -> k.studentID);
+    private static final Comparator<StudentKey> NAME_ORDER = Comparator.<StudentKey, String>comparing(k -> k.name).thenComparing(k -> k.studentID);
+    private static final Comparator<StudentKey> GRADE_ORDER = Comparator.<StudentKey>comparingDouble(k -> k.grade).thenComparing(k -> k.studentID);
+
+    private final ConcurrentHashMap<String, Location> index = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<StudentKey> byId = new ConcurrentSkipListSet<>(ID_ORDER);
+    private final ConcurrentSkipListSet<StudentKey> byName = new ConcurrentSkipListSet<>(NAME_ORDER);
+    private final ConcurrentSkipListSet<StudentKey> byGrade = new ConcurrentSkipListSet<>(GRADE_ORDER);
+    private final List<LogSegment> segments = new CopyOnWriteArrayList<>();
+    private final TrigramIndex searchIndex = new TrigramIndex();
+    // Readers hold the read lock; swapping in a compacted segment takes the write lock (before the monitor)
+    private final ReadWriteLock segmentLock = new ReentrantReadWriteLock();
+    // Writers move a key under the write lock; a page walks the ordered keys under the read lock (after the segment lock)
+    private final ReadWriteLock keyLock = new ReentrantReadWriteLock();
+    private final Object compaction = new Object();
+    private final ScheduledExecutorService compactor;
+    private volatile LogSegment active;
+
+    // Grade statistics, maintained on every write like the grade_stats triggers
+    private final int[] gradeHistogram = new int[MAX_GRADE_CENTS + 1];
+    private long gradeCount;
+    private long sumCents;
+    private long sumSquaresCents;
+    private int minCents = MAX_GRADE_CENTS + 1;
+    private int maxCents;
+    private volatile GradeStatistics statistics = new GradeStatistics(0, 0, 0, 0, 0, 0);
+
+    /**
+     * The sort values of a student's latest record; for a PageKey probe, only the fields of its order are set.
+     */
+    private static final class StudentKey {
+        final String studentID;
+        final String name;
+        final double grade;
+
+        StudentKey(String studentID, String name, double grade) {
+            this.studentID = studentID;
+            this.name = name;
+            this.grade = grade;
+        }
+    }
+
+    /**
+     * Where the latest record of a student is.
+     */
+    private static final class Location {
+        final LogSegment segment;
+        final long offset;
+        final int length;
+        final StudentKey key;
+
+        Location(LogSegment segment, long offset, int length, StudentKey key) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.key = key;
+        }
+    }
+
+    /**
+     * Records of one call, appended with a single write. Later operations in the batch see the earlier ones.
+     */
+    private final class Batch {
+        private final ByteArrayOutputStream frames = new ByteArrayOutputStream();
+        private final ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(payload);
+        private final List<Pending> pending = new ArrayList<>();
+        // Latest state per student in this batch; null for a student deleted in this batch
+        private final Map<String, Student> latest = new HashMap<>();
+
+        Student current(String studentID) throws IOException {
+            return latest.containsKey(studentID) ? latest.get(studentID) : load(studentID);
+        }
+
+        void put(Student s) throws IOException {
+            payload.reset();
+            encode(s, out);
+            add(new Pending(s.getStudentID(), s.getName(), s.getGrade()), s);
+        }
+
+        void delete(String studentID) throws IOException {
+            payload.reset();
+            out.writeByte(DELETE);
+            out.writeUTF(studentID);
+            add(new Pending(studentID, null, 0), null);
+        }
+
+        private void add(Pending p, Student s) throws IOException {
+            ByteBuffer frame = LogSegment.frame(payload.toByteArray(), payload.size());
+            p.start = frames.size();
+            p.length = frame.remaining();
+            frames.write(frame.array(), 0, frame.remaining());
+            pending.add(p);
+            latest.put(p.studentID, s);
+        }
+
+        int size() { return pending.size(); }
+    }
+
+    private static final class Pending {
+        final String studentID;
+        final String name; // null for a delete
+        final double grade;
+        int start;
+        int length;
+
+        Pending(String studentID, String name, double grade) {
+            this.studentID = studentID;
+            this.name = name;
+            this.grade = grade;
+        }
+    }
+
+    /**
+     * Opens the log in the configured directory, replaying existing segments.
+     */
+    public LogStructuredStudentManager(DatabaseConfig config) {
+        this.directory = Path.of(config.getLogDirectory());
+        this.segmentBytes = config.getLogSegmentBytes();
+        this.syncWrites = config.isLogSyncWrites();
+        this.importChunkSize = config.getImportChunkSize();
+        this.gzipLevel = config.getGzipLevel();
+        Map<String, String> names = new LinkedHashMap<>();
+        Map<String, Integer> credits = new LinkedHashMap<>();
+        for (CourseCatalog.Course c : CourseCatalog.DEFAULT_COURSES) {
+            names.put(c.getCode(), c.getName());
+            credits.put(c.getCode(), c.getCredits());
+        }
+        this.courseNames = Collections.unmodifiableMap(names);
+        this.courseCredits = Collections.unmodifiableMap(credits);
+
+        long start = System.nanoTime();
+        try {
+            recover();
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Student log recovery error", e);
+            throw new RuntimeException("Student log recovery failed: " + e.getMessage(), e);
+        }
+        LOGGER.info(String.format(Locale.US, "Student log opened: %d students in %d segments, replayed in %.1f ms",
+                index.size(), segments.size(), (System.nanoTime() - start) / 1e6));
+
+        long interval = config.getLogCompactIntervalMillis();
+        if (interval <= 0) {
+            this.compactor = null;
+            return;
+        }
+        this.compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "student-log-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+        compactor.scheduleWithFixedDelay(this::compactQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    // Recovery
+
+    /**
+     * Rebuilds the index by replaying every segment in order.
+     * Leftover ".compact" files are from a compaction that did not reach its rename; the original segment is intact.
+     */
+    private void recover() throws IOException {
+        Files.createDirectories(directory);
+        List<Integer> ids = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(COMPACT_SUFFIX)) {
+                    Files.delete(file);
+                    LOGGER.warning("Removed unfinished compaction output " + file);
+                } else if (LogSegment.parseId(name) >= 0) {
+                    ids.add(LogSegment.parseId(name));
+                }
+            }
+        }
+        Collections.sort(ids);
+
+        for (int i = 0; i < ids.size(); i++) {
+            LogSegment segment = LogSegment.open(directory, ids.get(i));
+            segments.add(segment);
+            long end = segment.scan((offset, frame) -> replay(segment, offset, frame));
+            if (end == segment.size()) continue;
+            if (i < ids.size() - 1) {
+                throw new IOException("Corrupt record in " + segment.getPath() + " at offset " + end);
+            }
+            LOGGER.warning("Truncating torn tail of " + segment.getPath() + ": " + (segment.size() - end) + " bytes at offset " + end);
+            segment.truncate(end);
+        }
+        if (segments.isEmpty()) segments.add(LogSegment.open(directory, 1));
+        active = segments.get(segments.size() - 1);
+        publishStatistics();
+    }
+
+    private void replay(LogSegment segment, long offset, ByteBuffer frame) throws IOException {
+        DataInputStream in = payload(frame);
+        byte op = in.readByte();
+        String studentID = in.readUTF();
+        if (op == PUT) {
+            String name = in.readUTF();
+            in.readInt();
+            apply(studentID, name, in.readDouble(), segment, offset, frame.remaining());
+        } else if (op == DELETE) {
+            apply(studentID, null, 0, segment, offset, frame.remaining());
+        } else {
+            throw new IOException("Unknown record type " + op + " in " + segment.getPath() + " at offset " + offset);
+        }
+    }
+
+    // Record format
+
+    /**
+     * PUT payload: type, ID, name, age, grade, enrollment date as epoch day, course count and codes.
+     */
+    private static void encode(Student s, DataOutputStream out) throws IOException {
+        out.writeByte(PUT);
+        out.writeUTF(s.getStudentID());
+        out.writeUTF(s.getName());
+        out.writeInt(s.getAge());
+        out.writeDouble(s.getGrade());
+        out.writeLong(s.getEnrollmentDate() != null ? s.getEnrollmentDate().toEpochDay() : NO_DATE);
+        out.writeShort(s.getCourses().size());
+        for (String code : s.getCourses()) out.writeUTF(code);
+    }
+
+    /**
+     * Decodes the rest of a PUT payload after its type and ID.
+     */
+    private static Student decode(String studentID, DataInputStream in) throws IOException {
+        String name = in.readUTF();
+        int age = in.readInt();
+        double grade = in.readDouble();
+        long epochDay = in.readLong();
+        int count = in.readUnsignedShort();
+        ArrayList<String> courses = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) courses.add(in.readUTF());
+        return new Student(studentID, name, age, grade, epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay), courses);
+    }
+
+    private static DataInputStream payload(ByteBuffer frame) {
+        return new DataInputStream(new ByteArrayInputStream(frame.array(), frame.arrayOffset() + frame.position() + LogSegment.HEADER_BYTES,
+                frame.remaining() - LogSegment.HEADER_BYTES));
+    }
+
+    private static int toCents(double grade) {
+        return (int) Math.round(grade * 100);
+    }
+
+    /**
+     * Reads the latest record of a student. Callers hold the read lock or the monitor, so the segment cannot be swapped meanwhile.
+     */
+    private Student load(String studentID) throws IOException {
+        Location loc = index.get(studentID);
+        return loc != null ? read(loc) : null;
+    }
+
+    private static Student read(Location loc) throws IOException {
+        DataInputStream in = payload(loc.segment.read(loc.offset, loc.length));
+        in.readByte();
+        return decode(in.readUTF(), in);
+    }
+
+    // Writes
+
+    /**
+     * Appends the batch with one write (and one fsync) and then points the index at the new records.
+     */
+    private void commit(Batch batch) {
+        if (batch.size() == 0) return;
+        try {
+            LogSegment segment = active;
+            if (segment.size() > 0 && segment.size() + batch.frames.size() > segmentBytes) segment = roll();
+            long base = segment.append(ByteBuffer.wrap(batch.frames.toByteArray()));
+            if (syncWrites) segment.force();
+            for (Pending p : batch.pending) apply(p.studentID, p.name, p.grade, segment, base + p.start, p.length);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error writing student log", e);
+            throw new RuntimeException("Error writing student log: " + e.getMessage(), e);
+        }
+        publishStatistics();
+    }
+
+    /**
+     * Seals the active segment and starts the next one.
+     */
+    private LogSegment roll() throws IOException {
+        active.force();
+        LogSegment next = LogSegment.open(directory, active.getId() + 1);
+        segments.add(next);
+        active = next;
+        LOGGER.fine("Student log rolled to " + next);
+        return next;
+    }
+
+    /**
+     * Points the index at a record that was replayed or just appended; a null name is a tombstone.
+     * Tombstones are never live: they only matter to replay and are dropped by compaction when possible.
+     */
+    private void apply(String studentID, String name, double grade, LogSegment segment, long offset, int length) {
+        StudentKey key = name != null ? new StudentKey(studentID, name, grade) : null;
+        Location previous;
+        keyLock.writeLock().lock();
+        try {
+            // One put or remove, so findStudent never misses a student that is being updated
+            previous = key != null
+                    ? index.put(studentID, new Location(segment, offset, length, key))
+                    : index.remove(studentID);
+            if (previous != null) {
+                byId.remove(previous.key);
+                byName.remove(previous.key);
+                byGrade.remove(previous.key);
+            }
+            if (key != null) {
+                byId.add(key);
+                byName.add(key);
+                byGrade.add(key);
+            }
+        } finally {
+            keyLock.writeLock().unlock();
+        }
+        if (previous != null) {
+            previous.segment.addLiveBytes(-previous.length);
+            addGrade(toCents(previous.key.grade), -1);
+        }
+        if (name != null) {
+            segment.addLiveBytes(length);
+            addGrade(toCents(grade), 1);
+            searchIndex.put(studentID, name);
+        } else if (previous != null) {
+            searchIndex.remove(studentID);
+        }
+    }
+
+    /**
+     * Adjusts the running sums and the grade histogram; only grades above zero count, as in grade_stats.
+     */
+    private void addGrade(int cents, int sign) {
+        if (cents <= 0) return;
+        gradeHistogram[cents] += sign;
+        gradeCount += sign;
+        sumCents += sign * (long) cents;
+        sumSquaresCents += sign * (long) cents * cents;
+        if (sign > 0) {
+            minCents = Math.min(minCents, cents);
+            maxCents = Math.max(maxCents, cents);
+        } else if (gradeHistogram[cents] == 0) {
+            while (minCents <= MAX_GRADE_CENTS && gradeHistogram[minCents] == 0) minCents++;
+            while (maxCents > 0 && gradeHistogram[maxCents] == 0) maxCents--;
+        }
+    }
+
+    private void publishStatistics() {
+        statistics = new GradeStatistics(index.size(), gradeCount, sumCents, sumSquaresCents,
+                gradeCount == 0 ? 0 : minCents / 100.0, maxCents / 100.0);
+    }
+
+    @Override
+    public synchronized void addStudent(Student student) {
+        Batch batch = new Batch();
+        try {
+            String error = checkInsert(batch, student, false);
+            if (error != null) throw new RuntimeException("Error adding student: " + error);
+            batch.put(copyOf(student));
+        } catch (IOException e) {
+            throw new RuntimeException("Error adding student: " + e.getMessage(), e);
+        }
+        commit(batch);
+        LOGGER.info("Student added: " + student.getName());
+    }
+
+    /**
+     * All valid students are appended together, so the batch costs a single fsync.
+     */
+    @Override
+    public synchronized BulkResult addStudents(List<Student> students) {
+        Batch batch = new Batch();
+        List<String> errors = new ArrayList<>(students.size());
+        try {
+            for (Student student : students) {
+                String error = checkInsert(batch, student, false);
+                if (error == null) batch.put(copyOf(student));
+                errors.add(error != null ? "Error adding student: " + error : null);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error adding students: " + e.getMessage(), e);
+        }
+        commit(batch);
+        return new BulkResult(errors);
+    }
+
+    /**
+     * Keeps the stored enrollment date, like StudentManagerImpl; the courses are replaced.
+     */
+    @Override
+    public synchronized void updateStudent(String studentID, Student updatedStudent) {
+        Batch batch = new Batch();
+        try {
+            Student stored = batch.current(studentID);
+            if (stored == null) throw new RuntimeException("Student not found: " + studentID);
+            String unknown = unknownCourse(updatedStudent.getCourses());
+            if (unknown != null) throw new RuntimeException("Error updating student: unknown course " + unknown);
+            batch.put(withValues(stored, updatedStudent.getName(), updatedStudent.getAge(), updatedStudent.getGrade(),
+                    stored.getEnrollmentDate(), updatedStudent.getCourses()));
+        } catch (IOException e) {
+            throw new RuntimeException("Database error during update.", e);
+        }
+        commit(batch);
+        LOGGER.info("Student updated: " + studentID);
+    }
+
+    @Override
+    public synchronized void removeStudent(String studentID) {
+        if (index.containsKey(studentID)) {
+            Batch batch = new Batch();
+            try {
+                batch.delete(studentID);
+            } catch (IOException e) {
+                throw new RuntimeException("Error removing student: " + e.getMessage(), e);
+            }
+            commit(batch);
+        }
+        LOGGER.info("Student removed: " + studentID);
+    }
+
+    /**
+     * Like StudentManagerImpl, unknown IDs are reported as failures.
+     */
+    @Override
+    public synchronized BulkResult removeStudents(List<String> studentIDs) {
+        Batch batch = new Batch();
+        List<String> errors = new ArrayList<>(studentIDs.size());
+        try {
+            for (String studentID : studentIDs) {
+                if (batch.current(studentID) == null) {
+                    errors.add("Student not found: " + studentID);
+                } else {
+                    batch.delete(studentID);
+                    errors.add(null);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Error removing students: " + e.getMessage(), e);
+        }
+        commit(batch);
+        return new BulkResult(errors);
+    }
+
+    /**
+     * @return Why the student cannot be inserted (duplicate ID, duplicate or unknown course), or null.
+     */
+    private String checkInsert(Batch batch, Student student, boolean allowRepeatedCourses) throws IOException {
+        if (batch.current(student.getStudentID()) != null) return "student already exists: " + student.getStudentID();
+        Set<String> seen = new TreeSet<>();
+        for (String code : student.getCourses()) {
+            if (!seen.add(code) && !allowRepeatedCourses) return "duplicate course " + code;
+        }
+        String unknown = unknownCourse(student.getCourses());
+        return unknown != null ? "unknown course " + unknown : null;
+    }
+
+    private String unknownCourse(List<String> codes) {
+        for (String code : codes) {
+            if (!courseNames.containsKey(code)) return code;
+        }
+        return null;
+    }
+
+    /**
+     * A stored copy with its courses sorted and without duplicates, the order in which the database returns them.
+     */
+    private static Student copyOf(Student s) {
+        return withValues(s, s.getName(), s.getAge(), s.getGrade(), s.getEnrollmentDate(), s.getCourses());
+    }
+
+    private static Student withValues(Student s, String name, int age, double grade, LocalDate date, List<String> courses) {
+        return new Student(s.getStudentID(), name, age, grade, date, new ArrayList<>(new TreeSet<>(courses)));
+    }
+
+    // Search and Display
+
+    @Override
+    public Student findStudent(String studentID) {
+        segmentLock.readLock().lock();
+        try {
+            return load(studentID);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error reading student log", e);
+            return null;
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Student> displayAllStudents() {
+        return liveStudents();
+    }
+
+    /**
+     * Case- and accent-insensitive substring search over name and ID, as with the trigram search
+     * option of StudentManagerImpl.
+     */
+    @Override
+    public List<Student> searchStudents(String query) {
+        if (query == null || query.isBlank()) return displayAllStudents();
+        List<Student> students = new ArrayList<>();
+        for (String id : searchIndex.search(query.trim(), SEARCH_RESULT_LIMIT)) {
+            Student s = findStudent(id);
+            if (s != null) students.add(s);
+        }
+        return students;
+    }
+
+    /**
+     * Seeks past the page key in the ordered keys and reads only the records of the page.
+     */
+    @Override
+    public StudentPage listStudents(PageKey afterKey, int limit, StudentSort sort) {
+        if (limit < 1) throw new IllegalArgumentException("Page size must be at least 1.");
+        NavigableSet<StudentKey> keys = sort == StudentSort.NAME ? byName : sort == StudentSort.GRADE ? byGrade : byId;
+        Iterable<StudentKey> ordered = afterKey == null ? keys : keys.tailSet(probe(afterKey, sort), false);
+        List<Student> students = new ArrayList<>(limit + 1);
+        segmentLock.readLock().lock();
+        keyLock.readLock().lock();
+        try {
+            for (StudentKey key : ordered) {
+                if (students.size() > limit) break;
+                students.add(read(index.get(key.studentID)));
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error reading student log", e);
+            throw new RuntimeException("Error reading student log: " + e.getMessage(), e);
+        } finally {
+            keyLock.readLock().unlock();
+            segmentLock.readLock().unlock();
+        }
+        PageKey nextKey = null;
+        if (students.size() > limit) {
+            students.remove(limit);
+            nextKey = PageKey.after(students.get(limit - 1), sort);
+        }
+        return new StudentPage(students, nextKey);
+    }
+
+    /**
+     * Takes the name-ordered keys under the read lock and reads one record at a time, so only the keys
+     * are held in memory and the action runs without the lock. A student deleted meanwhile is skipped;
+     * one updated meanwhile is handed over with its latest record.
+     */
+    @Override
+    public void forEachStudent(Consumer<? super Student> action) {
+        List<StudentKey> keys;
+        keyLock.readLock().lock();
+        try {
+            keys = new ArrayList<>(byName);
+        } finally {
+            keyLock.readLock().unlock();
+        }
+        for (StudentKey key : keys) {
+            Student s = readLatest(key.studentID);
+            if (s != null) action.accept(s);
+        }
+    }
+
+    private static StudentKey probe(PageKey key, StudentSort sort) {
+        switch (sort) {
+            case NAME: return new StudentKey(key.getStudentID(), (String) key.getSortValue(), 0);
+            case GRADE: return new StudentKey(key.getStudentID(), null, ((Number) key.getSortValue()).doubleValue());
+            default: return new StudentKey(key.getStudentID(), null, 0);
+        }
+    }
+
+    private Student readLatest(String studentID) {
+        segmentLock.readLock().lock();
+        try {
+            return load(studentID);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error reading student log", e);
+            throw new RuntimeException("Error reading student log: " + e.getMessage(), e);
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scans all segments sequentially and keeps the records the index points to, ordered by name.
+     * Records appended after a segment was scanned are picked up from the index afterwards, so a
+     * student updated during the scan is still listed once.
+     */
+    private List<Student> liveStudents() {
+        Map<String, Student> found = new HashMap<>(index.size() * 2);
+        Map<LogSegment, Long> scannedTo = new IdentityHashMap<>();
+        segmentLock.readLock().lock();
+        try {
+            for (LogSegment segment : segments) {
+                long end = segment.scan((offset, frame) -> {
+                    DataInputStream in = payload(frame);
+                    if (in.readByte() != PUT) return;
+                    String studentID = in.readUTF();
+                    Location loc = index.get(studentID);
+                    if (loc == null || loc.segment != segment || loc.offset != offset) return;
+                    found.put(studentID, decode(studentID, in));
+                });
+                scannedTo.put(segment, end);
+            }
+            for (Map.Entry<String, Location> e : index.entrySet()) {
+                Location loc = e.getValue();
+                Long end = scannedTo.get(loc.segment);
+                if (end != null && loc.offset < end) continue;
+                Student s = load(e.getKey());
+                if (s != null) found.put(e.getKey(), s);
+            }
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error reading student log", e);
+            throw new RuntimeException("Error reading student log: " + e.getMessage(), e);
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+        List<Student> students = new ArrayList<>(found.values());
+        students.sort(StudentSort.NAME.comparator());
+        return students;
+    }
+
+    // Analytics
+
+    @Override
+    public double calculateAverageGrade() {
+        return statistics.getAverage();
+    }
+
+    @Override
+    public GradeStatistics getGradeStatistics() {
+        return statistics;
+    }
+
+    // Import / Export
+
+    @Override
+    public void exportStudentsToCSV(String filePath) {
+        long start = System.nanoTime();
+        List<Student> students = displayAllStudents();
+        try (Writer writer = StudentCsv.openWriter(filePath, gzipLevel, EXPORT_BUFFER_CHARS)) {
+            StudentCsv.RowWriter out = new StudentCsv.RowWriter(writer, EXPORT_BUFFER_CHARS);
+            out.writeHeader();
+            for (Student s : students) {
+                out.writeRow(s.getStudentID(), s.getName(), s.getAge(), s.getGrade(), s.getEnrollmentDate().toString(),
+                        s.getCourses().isEmpty() ? null : String.join(";", s.getCourses()));
+            }
+            out.flush();
+        } catch (IOException e) { throw new RuntimeException("Export error: " + e.getMessage()); }
+
+        long elapsed = System.nanoTime() - start;
+        LOGGER.info(String.format(Locale.US, "Exported %d rows in %.1f ms (%.0f rows/s)",
+                students.size(), elapsed / 1e6, elapsed == 0 ? 0.0 : students.size() * 1e9 / elapsed));
+    }
+
+    @Override
+    public void importStudentsFromCSV(String filePath) {
+        importStudentsFromCSV(filePath, ImportMode.INSERT_ONLY);
+    }
+
+    /**
+     * Rows are appended in chunks of sms.import.chunkSize, one write and one fsync per chunk.
+     * Other writers wait until the import is done. Log read and write failures end the import with a
+     * StudentImportException, like database errors in BulkCsvImporter.
+     */
+    @Override
+    public synchronized void importStudentsFromCSV(String filePath, ImportMode mode) {
+        long start = System.nanoTime();
+        List<String> errors = new ArrayList<>();
+        int[] stored = {0};
+        Batch[] batch = {new Batch()};
+        try {
+            StudentCsv.forEachRow(filePath, row -> {
+                try {
+                    if (importRow(batch[0], row, mode, errors)) stored[0]++;
+                } catch (IOException e) {
+                    LOGGER.log(Level.SEVERE, "Error reading student log", e);
+                    throw new StudentImportException("Error reading student log: " + e.getMessage());
+                }
+                if (batch[0].size() >= importChunkSize) {
+                    Batch chunk = batch[0];
+                    // Replaced before the commit, so a chunk whose commit failed is not committed again below
+                    batch[0] = new Batch();
+                    commitImported(chunk);
+                }
+            });
+        } catch (IOException e) {
+            throw new StudentImportException("File error: " + e.getMessage());
+        } finally {
+            // Rows before a failure stay imported, as with the committed chunks of BulkCsvImporter
+            commitImported(batch[0]);
+        }
+        ImportResult result = new ImportResult(stored[0], errors, System.nanoTime() - start);
+        LOGGER.info(result.toString());
+        result.throwIfFailed();
+    }
+
+    private void commitImported(Batch batch) {
+        try {
+            commit(batch);
+        } catch (RuntimeException e) {
+            throw new StudentImportException(e.getMessage());
+        }
+    }
+
+    /**
+     * Applies one parsed row with the semantics of BulkCsvImporter.
+     * @return True if the row was stored.
+     */
+    private boolean importRow(Batch batch, StudentCsv.Row row, ImportMode mode, List<String> errors) throws IOException {
+        if (!row.isValid()) {
+            errors.add("Line " + row.lineNumber + ": " + row.error);
+            return false;
+        }
+        Student s = row.student;
+        Student stored = batch.current(s.getStudentID());
+        if (stored == null || mode == ImportMode.INSERT_ONLY) {
+            // The merge modes ignore repeated courses (ON CONFLICT DO NOTHING)
+            String error = checkInsert(batch, s, mode != ImportMode.INSERT_ONLY);
+            if (error != null) {
+                errors.add("Line " + row.lineNumber + ": Error adding student: " + error);
+                return false;
+            }
+            batch.put(copyOf(s));
+            return true;
+        }
+        String unknown = unknownCourse(s.getCourses());
+        if (unknown != null) {
+            errors.add("Line " + row.lineNumber + ": Error adding student: unknown course " + unknown);
+            return false;
+        }
+        List<String> courses = new ArrayList<>(s.getCourses());
+        if (mode == ImportMode.UPSERT) courses.addAll(stored.getCourses());
+        batch.put(withValues(stored, s.getName(), s.getAge(), s.getGrade(), s.getEnrollmentDate(), courses));
+        return true;
+    }
+
+    @Override
+    public Map<String, String> getAllCourses() {
+        return courseNames;
+    }
+
+    @Override
+    public Map<String, Integer> getCourseCredits() {
+        return courseCredits;
+    }
+
+    // Compaction
+
+    /**
+     * Rewrites every sealed segment in which less than half of the bytes are live.
+     * @return The number of bytes reclaimed.
+     */
+    public long compact() throws IOException {
+        synchronized (compaction) {
+            long reclaimed = 0;
+            for (LogSegment segment : segments) {
+                if (segment == active || segment.getLiveBytes() >= segment.size() * COMPACT_LIVE_RATIO) continue;
+                reclaimed += compact(segment);
+            }
+            return reclaimed;
+        }
+    }
+
+    /**
+     * Copies the live records of a sealed segment into a new file, then swaps it in under the same number.
+     * A tombstone is kept while an older segment may still hold a record of that student. A segment the
+     * rewrite cannot shrink (e.g. one holding only kept tombstones, which never count as live) is left alone.
+     */
+    private long compact(LogSegment segment) throws IOException {
+        boolean keepTombstones = segment != segments.get(0);
+        // Old offset of every kept record; the new offset of each copied PUT, to re-point the index after the swap
+        Set<Long> kept = new HashSet<>();
+        Map<String, long[]> moved = new HashMap<>();
+        long[] keptBytes = {0};
+        segment.scan((offset, frame) -> {
+            DataInputStream in = payload(frame);
+            byte op = in.readByte();
+            String studentID = in.readUTF();
+            if (op == PUT) {
+                Location loc = index.get(studentID);
+                if (loc == null || loc.segment != segment || loc.offset != offset) return;
+                moved.put(studentID, new long[]{offset, keptBytes[0]});
+            } else if (!keepTombstones || index.containsKey(studentID)) {
+                return;
+            }
+            kept.add(offset);
+            keptBytes[0] += frame.remaining();
+        });
+        if (keptBytes[0] == segment.size()) return 0;
+
+        Path target = directory.resolve(LogSegment.fileName(segment.getId()) + COMPACT_SUFFIX);
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long[] position = {0};
+            segment.scan((offset, frame) -> {
+                if (!kept.contains(offset)) return;
+                while (frame.hasRemaining()) position[0] += out.write(frame, position[0]);
+            });
+            out.force(true);
+        }
+
+        long before = segment.size();
+        LogSegment compacted;
+        segmentLock.writeLock().lock();
+        try {
+            synchronized (this) {
+                Files.move(target, segment.getPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                compacted = LogSegment.open(directory, segment.getId());
+                for (Map.Entry<String, long[]> e : moved.entrySet()) {
+                    Location loc = index.get(e.getKey());
+                    // Students written since the copy already point to a newer record
+                    if (loc == null || loc.segment != segment || loc.offset != e.getValue()[0]) continue;
+                    index.put(e.getKey(), new Location(compacted, e.getValue()[1], loc.length, loc.key));
+                    compacted.addLiveBytes(loc.length);
+                }
+                segments.set(segments.indexOf(segment), compacted);
+                segment.close();
+                if (compacted.size() == 0) {
+                    segments.remove(compacted);
+                    compacted.delete();
+                }
+            }
+        } finally {
+            segmentLock.writeLock().unlock();
+        }
+        LOGGER.fine("Compacted " + segment + ": " + before + " -> " + compacted.size() + " bytes");
+        return before - compacted.size();
+    }
+
+    private void compactQuietly() {
+        try {
+            long reclaimed = compact();
+            if (reclaimed > 0) LOGGER.info("Student log compacted: " + reclaimed + " bytes reclaimed");
+        } catch (IOException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Student log compaction failed", e);
+        }
+    }
+
+    /**
+     * @return The number of segment files.
+     */
+    public int getSegmentCount() { return segments.size(); }
+
+    /**
+     * @return The total size of all segments in bytes.
+     */
+    public long getLogBytes() {
+        long bytes = 0;
+        for (LogSegment segment : segments) bytes += segment.size();
+        return bytes;
+    }
+
+    /**
+     * Stops the compactor and closes the segments; with sms.log.syncWrites off, this is where the log is flushed.
+     */
+    @Override
+    public void close() {
+        if (compactor != null) {
+            compactor.shutdown();
+            try {
+                compactor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        synchronized (this) {
+            for (LogSegment segment : segments) {
+                try {
+                    if (segment == active) segment.force();
+                    segment.close();
+                } catch (IOException e) {
+                    LOGGER.log(Level.WARNING, "Error closing " + segment, e);
+                }
+            }
+        }
+    }
+}
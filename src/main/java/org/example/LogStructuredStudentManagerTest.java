@@ -0,0 +1,182 @@
+package org.example;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.example.StudentFixtures.apply;
+import static org.example.StudentFixtures.describe;
+import static org.example.StudentFixtures.student;
+
+/**
+ * Compares LogStructuredStudentManager with InMemoryStudentManager, before and after replaying the log.
+ */
+public class LogStructuredStudentManagerTest {
+
+    private static DatabaseConfig newConfig() throws Exception {
+        Path dir = Files.createTempDirectory("sms-log");
+        dir.toFile().deleteOnExit();
+        return new DatabaseConfig().setLogDirectory(dir.toString()).setLogCompactIntervalMillis(0).setLogSyncWrites(false);
+    }
+
+    private static void assertSameState(StudentManager expected, StudentManager actual) {
+        Assertions.assertEquals(describe(expected.displayAllStudents()), describe(actual.displayAllStudents()));
+        List<Student> streamed = new ArrayList<>();
+        actual.forEachStudent(streamed::add);
+        Assertions.assertEquals(describe(expected.displayAllStudents()), describe(streamed));
+        Assertions.assertEquals(expected.getGradeStatistics(), actual.getGradeStatistics());
+        Assertions.assertEquals(describe(expected.searchStudents("asa")), describe(actual.searchStudents("asa")));
+        for (StudentSort sort : StudentSort.values()) {
+            // Every page, until the last one
+            PageKey expectedKey = null;
+            PageKey actualKey = null;
+            do {
+                StudentPage expectedPage = expected.listStudents(expectedKey, 2, sort);
+                StudentPage actualPage = actual.listStudents(actualKey, 2, sort);
+                Assertions.assertEquals(describe(expectedPage.getStudents()), describe(actualPage.getStudents()));
+                expectedKey = expectedPage.getNextKey();
+                actualKey = actualPage.getNextKey();
+                Assertions.assertEquals(expectedKey == null, actualKey == null);
+            } while (expectedKey != null);
+        }
+    }
+
+    @Test
+    public void testSameStateBeforeAndAfterReplay() throws Exception {
+        DatabaseConfig config = newConfig();
+        InMemoryStudentManager memory = new InMemoryStudentManager();
+        apply(memory);
+        try (LogStructuredStudentManager log = new LogStructuredStudentManager(config)) {
+            apply(log);
+            assertSameState(memory, log);
+            Assertions.assertThrows(RuntimeException.class, () -> log.addStudent(student("S6", "Ben Cole", 20, 50, "NOPE101")));
+            Assertions.assertFalse(log.removeStudents(Arrays.asList("S5", "S9")).isSuccess(1));
+        }
+        memory.removeStudent("S5");
+        try (LogStructuredStudentManager log = new LogStructuredStudentManager(config)) {
+            assertSameState(memory, log);
+        }
+    }
+
+    @Test
+    public void testTornTailIsCutOffOnRecovery() throws Exception {
+        DatabaseConfig config = newConfig();
+        try (LogStructuredStudentManager log = new LogStructuredStudentManager(config)) {
+            log.addStudent(student("S1", "Anna Berg", 20, 91.5, "CS101"));
+            log.addStudent(student("S2", "Ben Cole", 22, 67.25));
+        }
+        Path segment = Path.of(config.getLogDirectory(), LogSegment.fileName(1));
+        long intact = Files.size(segment);
+        // A crash in the middle of an append: a frame header without its payload
+        Files.write(segment, new byte[]{0, 0, 0, 40, 1, 2, 3, 4, 1, 0}, StandardOpenOption.APPEND);
+
+        try (LogStructuredStudentManager log = new LogStructuredStudentManager(config)) {
+            Assertions.assertEquals(intact, Files.size(segment));
+            Assertions.assertEquals(2, log.displayAllStudents().size());
+            log.addStudent(student("S3", "Carl Eng", 25, 55.5));
+        }
+        try (LogStructuredStudentManager log = new LogStructuredStudentManager(config)) {
+            Assertions.assertEquals("Carl Eng", log.findStudent("S3").getName());
+        }
+    }
+
+    @Test
+    public void testCompactionKeepsLatestState() throws Exception {
+        DatabaseConfig config = newConfig().setLogSegmentBytes(512);
+        InMemoryStudentManager memory = new InMemoryStudentManager();
+        try (LogStructuredStudentManager log = new LogStructuredStudentManager(config)) {
+            for (StudentManager manager : List.of(memory, log)) {
+                for (int i = 0; i < 20; i++) manager.addStudent(student("S" + i, "Student Number", 20, i, "CS101"));
+                for (int round = 0; round < 5; round++) {
+                    for (int i = 0; i < 20; i += 2) manager.updateStudent("S" + i, student("S" + i, "Student Updated", 21, round, "MATH101"));
+                }
+                for (int i = 1; i < 20; i += 4) manager.removeStudent("S" + i);
+            }
+            long before = log.getLogBytes();
+            Assertions.assertTrue(log.compact() > 0);
+            Assertions.assertTrue(log.getLogBytes() < before);
+            assertSameState(memory, log);
+            try (Stream<Path> files = Files.list(Path.of(config.getLogDirectory()))) {
+                Assertions.assertEquals(log.getSegmentCount(), files.count());
+            }
+        }
+        try (LogStructuredStudentManager log = new LogStructuredStudentManager(config)) {
+            assertSameState(memory, log);
+        }
+    }
+
+    @Test
+    public void testSegmentThatCannotShrinkIsNotRewritten() throws Exception {
+        // Every call rolls to a new segment
+        DatabaseConfig config = newConfig().setLogSegmentBytes(1);
+        try (LogStructuredStudentManager log = new LogStructuredStudentManager(config)) {
+            log.addStudent(student("S1", "Anna Berg", 20, 91.5));
+            log.addStudent(student("S2", "Ben Cole", 22, 67.25));
+            log.removeStudent("S1");
+            log.addStudent(student("S3", "Carl Eng", 25, 55.5));
+
+            Path tombstones = Path.of(config.getLogDirectory(), LogSegment.fileName(3));
+            Object fileKey = Files.readAttributes(tombstones, BasicFileAttributes.class).fileKey();
+            // Segment 1 only holds the deleted S1; segment 3 only its tombstone, which must stay
+            Assertions.assertTrue(log.compact() > 0);
+            Assertions.assertEquals(0, log.compact());
+            Assertions.assertEquals(fileKey, Files.readAttributes(tombstones, BasicFileAttributes.class).fileKey());
+        }
+        try (LogStructuredStudentManager log = new LogStructuredStudentManager(config)) {
+            Assertions.assertNull(log.findStudent("S1"));
+            Assertions.assertEquals(2, log.displayAllStudents().size());
+        }
+    }
+
+    @Test
+    public void testCsvImportMatchesInMemory() throws Exception {
+        Path csv = Files.createTempFile("sms-log", ".csv");
+        csv.toFile().deleteOnExit();
+        Files.writeString(csv, StudentCsv.HEADER + "\n"
+                + "S1,Anna Berg,20,91.5,2024-09-01,CS101;MATH101\n"
+                + "S2,Ben Cole,22,67.25,2024-09-01,HIST101\n"
+                + "S1,Anna Berg,21,92,2024-09-01,PHYS101\n"
+                + "S3,Bad@Name,22,67.25,2024-09-01,\n");
+
+        InMemoryStudentManager memory = new InMemoryStudentManager();
+        try (LogStructuredStudentManager log = new LogStructuredStudentManager(newConfig().setImportChunkSize(2))) {
+            for (ImportMode mode : ImportMode.values()) {
+                StudentImportException fromMemory = Assertions.assertThrows(StudentImportException.class,
+                        () -> memory.importStudentsFromCSV(csv.toString(), mode));
+                StudentImportException fromLog = Assertions.assertThrows(StudentImportException.class,
+                        () -> log.importStudentsFromCSV(csv.toString(), mode));
+                Assertions.assertEquals(fromMemory.getMessage(), fromLog.getMessage());
+                Assertions.assertEquals(describe(memory.displayAllStudents()), describe(log.displayAllStudents()));
+            }
+        }
+    }
+
+    @Test
+    public void testPagesNeverMissAStudentDuringUpdates() throws Exception {
+        try (LogStructuredStudentManager log = new LogStructuredStudentManager(newConfig())) {
+            log.addStudent(student("S1", "Anna Berg", 20, 91.5, "CS101"));
+            log.addStudent(student("S2", "Ben Cole", 22, 67.25));
+            Thread writer = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    log.updateStudent("S1", i % 2 == 0 ? student("S1", "Carl Eng", 21, 55.5) : student("S1", "Anna Berg", 20, 91.5));
+                }
+            });
+            writer.start();
+            while (writer.isAlive()) {
+                Assertions.assertNotNull(log.findStudent("S1"));
+                for (StudentSort sort : StudentSort.values()) {
+                    Assertions.assertEquals(2, log.listStudents(null, 10, sort).getStudents().size());
+                }
+            }
+            writer.join();
+        }
+    }
+}
@@ -31,8 +31,8 @@ public class Main {
                 // Set system Look and Feel for better aesthetics
                 UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
 
-                // DB initialization happens inside getInstance
-                StudentManagerImpl.getInstance();
+                // Storage initialization (database or log replay) happens inside getDefault
+                StudentManagers.getDefault();
 
                 LOGGER.info("Application starting...");
 
@@ -17,7 +17,10 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 
 /**
  * The main application window (GUI).
@@ -25,7 +28,7 @@ import java.util.concurrent.ExecutionException;
  */
 public class MainFrame extends JFrame {
 
-    private final StudentManager manager;
+    private final AsyncStudentManager manager;
     private JTable studentTable;
     private DefaultTableModel tableModel;
     private JTextArea logArea;
@@ -35,12 +38,14 @@ public class MainFrame extends JFrame {
     private JTextField gradeField;
     private JLabel statsLabel;
     private Map<String, JCheckBox> courseCheckboxes;
+    // Incremented for every table load so that a slow, older result cannot overwrite a newer one
+    private int tableRequest;
 
     /**
      * Constructor initializes the UI and loads initial data.
      */
     public MainFrame() {
-        this.manager = StudentManagerImpl.getInstance();
+        this.manager = new AsyncStudentManager(StudentManagers.getDefault(), DatabaseConfig.fromSystemProperties());
         initUI();
         refreshData();
     }
@@ -104,13 +109,16 @@ public class MainFrame extends JFrame {
         JPanel coursesPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         coursesPanel.setBorder(BorderFactory.createTitledBorder("Enroll in Courses:"));
         courseCheckboxes = new HashMap<>();
-        Map<String, String> dbCourses = manager.getAllCourses();
-
-        for (Map.Entry<String, String> entry : dbCourses.entrySet()) {
-            JCheckBox cb = new JCheckBox(entry.getValue());
-            courseCheckboxes.put(entry.getKey(), cb);
-            coursesPanel.add(cb);
-        }
+        // Filled in on the EDT once the courses are loaded; the form works without them meanwhile
+        onEdt(manager.getAllCourses(), dbCourses -> {
+            for (Map.Entry<String, String> entry : dbCourses.entrySet()) {
+                JCheckBox cb = new JCheckBox(entry.getValue());
+                courseCheckboxes.put(entry.getKey(), cb);
+                coursesPanel.add(cb);
+            }
+            coursesPanel.revalidate();
+            coursesPanel.repaint();
+        });
 
         JButton addButton = new JButton("Add Student");
         addButton.addActionListener(e -> addStudentAction());
@@ -211,14 +219,8 @@ public class MainFrame extends JFrame {
             }
 
             setEnabled(false);
-            new SwingWorker<Void, Void>() {
-                @Override protected Void doInBackground() { manager.addStudent(s); return null; }
-                @Override protected void done() {
-                    try { get(); log("Added: " + name); refreshData(); clearInputs(); }
-                    catch (Exception ex) { handleException(ex); }
-                    finally { setEnabled(true); }
-                }
-            }.execute();
+            onEdt(manager.addStudent(s), ignored -> { log("Added: " + name); refreshData(); clearInputs(); },
+                    () -> setEnabled(true));
         } catch (Exception e) { handleException(e); }
     }
 
@@ -244,10 +246,14 @@ public class MainFrame extends JFrame {
         JSpinner ageIn = new JSpinner(new SpinnerNumberModel(age, 18, 100, 1));
         JTextField gradeIn = new JTextField(grade.replace(",", "."));
 
+        onEdt(manager.getAllCourses(), allCourses -> showEditDialog(id, nameIn, ageIn, gradeIn, dateObj, currentCourses, allCourses));
+    }
+
+    private void showEditDialog(String id, JTextField nameIn, JSpinner ageIn, JTextField gradeIn, Object dateObj,
+                                List<?> currentCourses, Map<String, String> allCourses) {
         JPanel coursesPanel = new JPanel(new GridLayout(0, 2));
         coursesPanel.setBorder(BorderFactory.createTitledBorder("Edit Courses"));
         Map<String, JCheckBox> editCheckboxes = new HashMap<>();
-        Map<String, String> allCourses = manager.getAllCourses();
 
         for (Map.Entry<String, String> entry : allCourses.entrySet()) {
             JCheckBox cb = new JCheckBox(entry.getValue());
@@ -272,29 +278,38 @@ public class MainFrame extends JFrame {
                 LocalDate regDate = (dateObj instanceof LocalDate) ? (LocalDate) dateObj : LocalDate.parse(dateObj.toString());
                 Student updated = new Student(id, nameIn.getText(), (int) ageIn.getValue(), newGrade, regDate, newCoursesList);
 
-                manager.updateStudent(id, updated);
-                log("Updated: " + id);
-                refreshData();
+                onEdt(manager.updateStudent(id, updated), ignored -> { log("Updated: " + id); refreshData(); });
             } catch (Exception e) { handleException(e); }
         }
     }
 
     private void deleteSelectedStudent() {
-        int row = studentTable.getSelectedRow();
-        if (row == -1) return;
-        String id = (String) tableModel.getValueAt(row, 0);
-        if (JOptionPane.showConfirmDialog(this, "Delete " + id + "?", "Confirm", JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION) {
-            manager.removeStudent(id);
-            log("Deleted: " + id);
-            refreshData();
+        int[] rows = studentTable.getSelectedRows();
+        if (rows.length == 0) return;
+        List<String> ids = new ArrayList<>(rows.length);
+        for (int row : rows) ids.add((String) tableModel.getValueAt(row, 0));
+        String question = ids.size() == 1 ? "Delete " + ids.get(0) + "?" : "Delete " + ids.size() + " students?";
+        if (JOptionPane.showConfirmDialog(this, question, "Confirm", JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION) {
+            onEdt(manager.removeStudents(ids), result -> {
+                for (int i = 0; i < ids.size(); i++) {
+                    log(result.isSuccess(i) ? "Deleted: " + ids.get(i) : "Not deleted: " + result.getError(i));
+                }
+                refreshData();
+            });
         }
     }
 
     private void refreshData() {
-        List<Student> list = manager.displayAllStudents();
-        updateTable(list);
-        updateChart(list);
-        statsLabel.setText(" Total: " + list.size() + " | Avg Grade: " + String.format("%.2f", manager.calculateAverageGrade()));
+        int request = ++tableRequest;
+        CompletableFuture<List<Student>> students = manager.displayAllStudents();
+        CompletableFuture<Double> average = manager.calculateAverageGrade();
+        onEdt(CompletableFuture.allOf(students, average), ignored -> {
+            List<Student> list = students.join();
+            if (request != tableRequest) return;
+            updateTable(list);
+            updateChart(list);
+            statsLabel.setText(" Total: " + list.size() + " | Avg Grade: " + String.format("%.2f", average.join()));
+        });
     }
 
     private void updateTable(List<Student> list) {
@@ -330,7 +345,10 @@ public class MainFrame extends JFrame {
         chartContainer.validate();
     }
 
-    private void searchStudents(String q) { updateTable(manager.searchStudents(q)); }
+    private void searchStudents(String q) {
+        int request = ++tableRequest;
+        onEdt(manager.searchStudents(q), list -> { if (request == tableRequest) updateTable(list); });
+    }
 
     /**
      * Opens a file chooser to import student data from a CSV file.
@@ -339,32 +357,48 @@ public class MainFrame extends JFrame {
     private void importFromCSV() {
         JFileChooser fileChooser = new JFileChooser();
         if (fileChooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
-            try {
-                manager.importStudentsFromCSV(fileChooser.getSelectedFile().getAbsolutePath());
-                // Success message only if no exception was thrown
-                log("Imported from: " + fileChooser.getSelectedFile().getName());
+            String fileName = fileChooser.getSelectedFile().getName();
+            // Success message only if no exception was thrown; a partial import fails with "Import finished..."
+            // Always refresh data afterwards to show whatever was successfully added
+            onEdt(manager.importStudentsFromCSV(fileChooser.getSelectedFile().getAbsolutePath()), ignored -> {
+                log("Imported from: " + fileName);
                 JOptionPane.showMessageDialog(this, "Import Successful! All records loaded.");
-            } catch (Exception e) {
-                // If exception contains "Import finished", it means partial success
-                handleException(e);
-            } finally {
-                // Always refresh data to show whatever was successfully added
-                refreshData();
-            }
+            }, this::refreshData);
         }
     }
 
     private void exportToCSV() {
         JFileChooser fc = new JFileChooser();
         if (fc.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
-            try { manager.exportStudentsToCSV(fc.getSelectedFile().getAbsolutePath()); }
-            catch(Exception e) { handleException(e); }
+            String path = fc.getSelectedFile().getAbsolutePath();
+            onEdt(manager.exportStudentsToCSV(path), ignored -> log("Exported to: " + path));
         }
     }
     private void clearInputs() { nameField.setText(""); gradeField.setText(""); courseCheckboxes.values().forEach(c->c.setSelected(false)); }
     private void log(String s) { logArea.append(new java.util.Date() + ": " + s + "\n"); }
+    private <T> void onEdt(CompletableFuture<T> future, Consumer<? super T> onSuccess) {
+        onEdt(future, onSuccess, () -> {});
+    }
+
+    /**
+     * Runs the callbacks on the EDT once the future completes; a failure goes to handleException.
+     * @param always Runs after the success or error handling.
+     */
+    private <T> void onEdt(CompletableFuture<T> future, Consumer<? super T> onSuccess, Runnable always) {
+        future.whenCompleteAsync((value, error) -> {
+            try {
+                if (error == null) onSuccess.accept(value);
+                else handleException(error);
+            } catch (Exception e) {
+                handleException(e);
+            } finally {
+                always.run();
+            }
+        }, SwingUtilities::invokeLater);
+    }
+
     private void handleException(Throwable t) {
-        if(t instanceof ExecutionException) t = t.getCause();
+        if(t instanceof ExecutionException || t instanceof CompletionException) t = t.getCause();
         JOptionPane.showMessageDialog(this, "Error: " + t.getMessage(), "Error", JOptionPane.ERROR_MESSAGE);
     }
 }
\ No newline at end of file
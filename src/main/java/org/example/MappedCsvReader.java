@@ -0,0 +1,330 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Reads a student CSV file through memory-mapped blocks instead of a Reader.
+ *
+ * The file is cut into newline-aligned blocks that can be parsed on separate threads.
+ * Fields are located by scanning the mapped bytes; numbers, grades and dates are decoded
+ * directly from the bytes, and only the ID, name and (cached) course codes become Strings.
+ * Any line the fast path does not fully understand is decoded and handed to StudentCsv.parse,
+ * so accepted rows and error messages are exactly those of the line-based reader.
+ * Line terminators are those of BufferedReader.readLine: \n, \r\n and a lone \r.
+ */
+final class MappedCsvReader implements Closeable {
+
+    /** Target size of one block; a block always ends after a line terminator. */
+    static final int DEFAULT_BLOCK_BYTES = 1 << 20;
+    private static final int HEADER_SCAN_BYTES = 1 << 16;
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    private final FileChannel channel;
+    private final long size;
+    private final int blockBytes;
+    private final String header;
+    private long position;
+    private int nextLine;
+
+    /**
+     * Opens the file and reads the header line (BOM removed).
+     */
+    MappedCsvReader(Path path, int blockBytes) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.blockBytes = blockBytes;
+        try {
+            this.header = readHeader();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return The first line of the file, or null for an empty file.
+     */
+    String getHeader() { return header; }
+
+    /**
+     * Maps the next block and counts its lines so that its rows get exact line numbers.
+     * @return The next block, or null at the end of the file.
+     */
+    Block nextBlock() throws IOException {
+        if (position >= size) return null;
+        long length = Math.min(blockBytes, size - position);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        int end = (int) length;
+        if (position + length < size) {
+            // Cut after the last \n so that \r\n is never split; grow the mapping for very long lines
+            end = lastIndexOf(buffer, LF, (int) length) + 1;
+            while (end == 0) {
+                length = Math.min(Math.min(length * 2, Integer.MAX_VALUE - 8), size - position);
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                end = position + length == size ? (int) length : lastIndexOf(buffer, LF, (int) length) + 1;
+            }
+        }
+        Block block = new Block(buffer, end, nextLine);
+        position += end;
+        nextLine += countLines(buffer, end);
+        return block;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * A newline-aligned byte range of the file, parsed into rows when called.
+     */
+    static final class Block implements Callable<List<StudentCsv.Row>> {
+        private final MappedByteBuffer buffer;
+        private final int limit;
+        private final int firstLine;
+
+        Block(MappedByteBuffer buffer, int limit, int firstLine) {
+            this.buffer = buffer;
+            this.limit = limit;
+            this.firstLine = firstLine;
+        }
+
+        @Override
+        public List<StudentCsv.Row> call() {
+            return new BlockParser(buffer).parse(limit, firstLine);
+        }
+    }
+
+    private String readHeader() throws IOException {
+        if (size == 0) return null;
+        int length = (int) Math.min(HEADER_SCAN_BYTES, size);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        int end = 0;
+        while (end < length && buffer.get(end) != LF && buffer.get(end) != CR) end++;
+        if (end == length && length < size) throw new StudentImportException("Invalid CSV header. Expected 'ID,Name,Age...'.");
+        String line = decode(buffer, 0, end, new byte[end]);
+        position = end;
+        if (position < length && buffer.get((int) position) == CR) position++;
+        if (position < length && buffer.get((int) position) == LF) position++;
+        nextLine = 2;
+        return StudentCsv.stripBom(line);
+    }
+
+    private static int lastIndexOf(MappedByteBuffer buffer, byte b, int limit) {
+        for (int i = limit - 1; i >= 0; i--) {
+            if (buffer.get(i) == b) return i;
+        }
+        return -1;
+    }
+
+    private static int countLines(MappedByteBuffer buffer, int limit) {
+        int lines = 0;
+        for (int i = 0; i < limit; i++) {
+            byte b = buffer.get(i);
+            if (b == LF) lines++;
+            else if (b == CR && (i + 1 == limit || buffer.get(i + 1) != LF)) lines++;
+        }
+        // A last line without a terminator still counts
+        if (limit > 0 && buffer.get(limit - 1) != LF && buffer.get(limit - 1) != CR) lines++;
+        return lines;
+    }
+
+    private static String decode(MappedByteBuffer buffer, int from, int to, byte[] scratch) {
+        buffer.get(from, scratch, 0, to - from);
+        return new String(scratch, 0, to - from, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses one block. Not thread-safe; each block gets its own parser.
+     */
+    private static final class BlockParser {
+        private final MappedByteBuffer buffer;
+        private final int[] fieldEnds = new int[6];
+        private final List<byte[]> courseBytes = new ArrayList<>();
+        private final List<String> courseCodes = new ArrayList<>();
+        private byte[] scratch = new byte[256];
+
+        BlockParser(MappedByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        List<StudentCsv.Row> parse(int limit, int firstLine) {
+            List<StudentCsv.Row> rows = new ArrayList<>();
+            int lineNumber = firstLine;
+            int start = 0;
+            while (start < limit) {
+                int end = start;
+                while (end < limit) {
+                    byte b = buffer.get(end);
+                    if (b == LF || b == CR) break;
+                    end++;
+                }
+                StudentCsv.Row row = parseLine(lineNumber, start, end);
+                if (row != null) rows.add(row);
+                lineNumber++;
+                start = end < limit && buffer.get(end) == CR ? end + 1 : end;
+                if (start < limit && buffer.get(start) == LF) start++;
+                else if (start == end) start++;
+            }
+            return rows;
+        }
+
+        /**
+         * Fast path for a well-formed line; everything else goes through StudentCsv.parse.
+         */
+        private StudentCsv.Row parseLine(int lineNumber, int start, int end) {
+            if (isBlank(start, end)) return null;
+            if (end - start > scratch.length) scratch = new byte[Math.max(end - start, scratch.length * 2)];
+
+            int fields = 0;
+            for (int i = start; i < end && fields < fieldEnds.length; i++) {
+                byte b = buffer.get(i);
+                if (b == ',') fieldEnds[fields++] = i;
+                else if (b < 0 && fields >= 2) return fallback(lineNumber, start, end);
+            }
+            if (fields < 5) return fallback(lineNumber, start, end);
+            if (fields == 5) fieldEnds[5] = end;
+
+            int age = parseInt(fieldEnds[1] + 1, fieldEnds[2]);
+            long gradeHundredths = parseHundredths(fieldEnds[2] + 1, fieldEnds[3]);
+            LocalDate date = parseDate(fieldEnds[3] + 1, fieldEnds[4]);
+            if (age == Integer.MIN_VALUE || gradeHundredths < 0 || date == null) return fallback(lineNumber, start, end);
+
+            try {
+                String id = decode(buffer, start, fieldEnds[0], scratch);
+                String name = decode(buffer, fieldEnds[0] + 1, fieldEnds[1], scratch);
+                return StudentCsv.Row.ok(lineNumber, new Student(id, name, age, gradeHundredths / 100.0, date,
+                        parseCourses(fieldEnds[4] + 1, fieldEnds[5])));
+            } catch (RuntimeException e) {
+                return fallback(lineNumber, start, end);
+            }
+        }
+
+        private StudentCsv.Row fallback(int lineNumber, int start, int end) {
+            return StudentCsv.parse(lineNumber, decode(buffer, start, end, scratch));
+        }
+
+        /** Same as String.trim().isEmpty(): only control characters and spaces. */
+        private boolean isBlank(int start, int end) {
+            for (int i = start; i < end; i++) {
+                byte b = buffer.get(i);
+                if (b < 0 || b > ' ') return false;
+            }
+            return true;
+        }
+
+        /**
+         * @return The value of an optionally signed decimal of at most nine digits, or Integer.MIN_VALUE.
+         */
+        private int parseInt(int from, int to) {
+            boolean negative = from < to && buffer.get(from) == '-';
+            if (from < to && (negative || buffer.get(from) == '+')) from++;
+            if (from == to || to - from > 9) return Integer.MIN_VALUE;
+            int value = 0;
+            for (int i = from; i < to; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9) return Integer.MIN_VALUE;
+                value = value * 10 + digit;
+            }
+            return negative ? -value : value;
+        }
+
+        /**
+         * Parses an unsigned grade with at most two decimals into hundredths; n / 100.0 is then
+         * the same double that Double.parseDouble returns. Anything else returns -1.
+         */
+        private long parseHundredths(int from, int to) {
+            long value = 0;
+            int digits = 0;
+            int decimals = -1;
+            for (int i = from; i < to; i++) {
+                byte b = buffer.get(i);
+                if (b == '.' && decimals < 0) {
+                    decimals = 0;
+                    continue;
+                }
+                int digit = b - '0';
+                if (digit < 0 || digit > 9 || ++digits > 15) return -1;
+                value = value * 10 + digit;
+                if (decimals >= 0 && ++decimals > 2) return -1;
+            }
+            if (digits == 0) return -1;
+            for (int d = Math.max(decimals, 0); d < 2; d++) value *= 10;
+            return value;
+        }
+
+        /**
+         * Parses yyyy-MM-dd, the only form LocalDate.parse accepts for four-digit years.
+         */
+        private LocalDate parseDate(int from, int to) {
+            if (to - from != 10 || buffer.get(from + 4) != '-' || buffer.get(from + 7) != '-') return null;
+            int year = parseInt(from, from + 4);
+            int month = parseInt(from + 5, from + 7);
+            int day = parseInt(from + 8, to);
+            if (year < 0 || month < 0 || day < 0 || buffer.get(from) == '+' || buffer.get(from + 5) == '+'
+                    || buffer.get(from + 8) == '+') return null;
+            try {
+                return LocalDate.of(year, month, day);
+            } catch (DateTimeException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Splits on ';', trims every code and drops empty ones. Codes repeat across rows,
+         * so each distinct code is decoded only once per block.
+         */
+        private ArrayList<String> parseCourses(int from, int to) {
+            ArrayList<String> courses = new ArrayList<>(2);
+            int start = from;
+            for (int i = from; i <= to; i++) {
+                if (i < to && buffer.get(i) != ';') continue;
+                int s = start;
+                int e = i;
+                while (s < e && isTrimmed(buffer.get(s))) s++;
+                while (e > s && isTrimmed(buffer.get(e - 1))) e--;
+                if (s < e) courses.add(courseCode(s, e));
+                start = i + 1;
+            }
+            return courses;
+        }
+
+        private static boolean isTrimmed(byte b) {
+            return b >= 0 && b <= ' ';
+        }
+
+        private String courseCode(int from, int to) {
+            for (int c = 0; c < courseBytes.size(); c++) {
+                if (matches(courseBytes.get(c), from, to)) return courseCodes.get(c);
+            }
+            byte[] bytes = new byte[to - from];
+            buffer.get(from, bytes);
+            String code = new String(bytes, StandardCharsets.UTF_8);
+            if (courseBytes.size() < 64) {
+                courseBytes.add(bytes);
+                courseCodes.add(code);
+            }
+            return code;
+        }
+
+        private boolean matches(byte[] bytes, int from, int to) {
+            if (bytes.length != to - from) return false;
+            for (int i = 0; i < bytes.length; i++) {
+                if (bytes[i] != buffer.get(from + i)) return false;
+            }
+            return true;
+        }
+    }
+}
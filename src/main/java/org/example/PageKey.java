@@ -0,0 +1,44 @@
+package org.example;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Position of the last row of a page in a keyset (seek) pagination.
+ * The next page starts right after (sortValue, studentID), so no OFFSET scan is needed.
+ */
+public class PageKey implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final Object sortValue;
+    private final String studentID;
+
+    public PageKey(Object sortValue, String studentID) {
+        this.sortValue = sortValue;
+        this.studentID = Objects.requireNonNull(studentID);
+    }
+
+    /**
+     * Builds the key that continues after the given student.
+     */
+    public static PageKey after(Student student, StudentSort sort) {
+        return new PageKey(sort.valueOf(student), student.getStudentID());
+    }
+
+    public Object getSortValue() { return sortValue; }
+    public String getStudentID() { return studentID; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        PageKey pageKey = (PageKey) o;
+        return Objects.equals(sortValue, pageKey.sortValue) && studentID.equals(pageKey.studentID);
+    }
+
+    @Override
+    public int hashCode() { return Objects.hash(sortValue, studentID); }
+
+    @Override
+    public String toString() { return "PageKey{" + sortValue + ", " + studentID + "}"; }
+}
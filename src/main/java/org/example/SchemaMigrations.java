@@ -0,0 +1,94 @@
+package org.example;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Ordered schema migrations tracked in PRAGMA user_version.
+ *
+ * Each migration has a version number; migrate() applies the ones above the stored version in
+ * ascending order and stores each version together with its changes, so a crash never leaves a
+ * step half recorded. A database that is up to date costs one PRAGMA read at startup.
+ * Steps must be idempotent (CREATE ... IF NOT EXISTS): databases created before migrations
+ * existed start at version 0 and run every step over their existing schema.
+ */
+final class SchemaMigrations {
+    private static final Logger LOGGER = Logger.getLogger(SchemaMigrations.class.getName());
+
+    /**
+     * One migration step; runs on the writer connection inside the migration's transaction.
+     */
+    interface Step {
+        void apply(Statement stmt) throws SQLException;
+    }
+
+    static final class Migration {
+        private final int version;
+        private final String description;
+        private final Step step;
+
+        Migration(int version, String description, Step step) {
+            this.version = version;
+            this.description = description;
+            this.step = step;
+        }
+
+        int getVersion() { return version; }
+        String getDescription() { return description; }
+    }
+
+    private final List<Migration> migrations = new ArrayList<>();
+
+    /**
+     * Adds the next migration; versions must be added in increasing order.
+     */
+    SchemaMigrations add(int version, String description, Step step) {
+        if (!migrations.isEmpty() && version <= getLatestVersion()) {
+            throw new IllegalArgumentException("Migration " + version + " must come after " + getLatestVersion() + ".");
+        }
+        migrations.add(new Migration(version, description, step));
+        return this;
+    }
+
+    List<Migration> getMigrations() { return Collections.unmodifiableList(migrations); }
+
+    int getLatestVersion() {
+        return migrations.isEmpty() ? 0 : migrations.get(migrations.size() - 1).getVersion();
+    }
+
+    /**
+     * Applies all pending migrations on the given connection. The caller owns the transaction.
+     * @return The number of migrations applied.
+     * @throws SQLException If a step fails, or if the database is newer than this application.
+     */
+    int migrate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            int current = readVersion(stmt);
+            if (current > getLatestVersion()) {
+                throw new SQLException("Database schema version " + current + " is newer than the supported version " + getLatestVersion() + ".");
+            }
+            int applied = 0;
+            for (Migration m : migrations) {
+                if (m.getVersion() <= current) continue;
+                m.step.apply(stmt);
+                // PRAGMA does not take parameters; the version is an int
+                stmt.execute("PRAGMA user_version = " + m.getVersion());
+                LOGGER.info("Schema migrated to version " + m.getVersion() + ": " + m.getDescription());
+                applied++;
+            }
+            return applied;
+        }
+    }
+
+    static int readVersion(Statement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA user_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.example;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.example.StudentFixtures.databaseConfig;
+import static org.example.StudentFixtures.newDatabaseFile;
+
+public class SchemaMigrationsTest {
+
+    private static StudentManagerImpl open(Path file) {
+        return new StudentManagerImpl(databaseConfig(file).setCacheMaxStudents(0));
+    }
+
+    private static Connection connect(Path file) throws SQLException {
+        return DriverManager.getConnection("jdbc:sqlite:" + file);
+    }
+
+    /**
+     * @return All "detail" lines of EXPLAIN QUERY PLAN, one per line.
+     */
+    private static String queryPlan(Connection conn, String sql, Object... params) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (PreparedStatement pstmt = conn.prepareStatement("EXPLAIN QUERY PLAN " + sql)) {
+            for (int i = 0; i < params.length; i++) pstmt.setObject(i + 1, params[i]);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) plan.append(rs.getString("detail")).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private static int userVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            return SchemaMigrations.readVersion(stmt);
+        }
+    }
+
+    @Test
+    public void testNewDatabaseIsAtLatestVersion() throws Exception {
+        Path file = newDatabaseFile();
+        try (StudentManagerImpl manager = open(file)) {
+            Assertions.assertEquals(4, manager.getAllCourses().size());
+        }
+        try (Connection conn = connect(file)) {
+            Assertions.assertEquals(StudentManagerImpl.schemaMigrations().getLatestVersion(), userVersion(conn));
+            // Nothing is pending on the next start
+            Assertions.assertEquals(0, StudentManagerImpl.schemaMigrations().migrate(conn));
+        }
+    }
+
+    @Test
+    public void testLegacyDatabaseIsMigratedInPlace() throws Exception {
+        Path file = newDatabaseFile();
+        try (Connection conn = connect(file); Statement stmt = conn.createStatement()) {
+            // Schema as created before migrations existed: user_version 0, no secondary indexes
+            stmt.execute("CREATE TABLE students (studentID TEXT PRIMARY KEY, name TEXT NOT NULL, age INTEGER, grade REAL, enrollmentDate TEXT);");
+            stmt.execute("CREATE TABLE courses (courseCode TEXT PRIMARY KEY, courseName TEXT, credits INTEGER);");
+            stmt.execute("INSERT INTO students VALUES ('S1', 'Old Student', 30, 88.5, '2020-01-01');");
+            stmt.execute("INSERT INTO courses VALUES ('BIO101', 'Biology', 2);");
+        }
+        try (StudentManagerImpl manager = open(file)) {
+            Assertions.assertEquals("Old Student", manager.findStudent("S1").getName());
+            Assertions.assertEquals(1, manager.searchStudents("Old").size());
+            Assertions.assertEquals(88.5, manager.calculateAverageGrade());
+            // Existing courses are kept; defaults are only inserted into an empty table
+            Assertions.assertEquals(1, manager.getAllCourses().size());
+        }
+        try (Connection conn = connect(file)) {
+            Assertions.assertEquals(StudentManagerImpl.schemaMigrations().getLatestVersion(), userVersion(conn));
+        }
+    }
+
+    @Test
+    public void testNewerDatabaseIsRejected() throws Exception {
+        Path file = newDatabaseFile();
+        try (Connection conn = connect(file); Statement stmt = conn.createStatement()) {
+            stmt.execute("PRAGMA user_version = 1000");
+            Assertions.assertThrows(SQLException.class, () -> StudentManagerImpl.schemaMigrations().migrate(conn));
+        }
+        RuntimeException e = Assertions.assertThrows(RuntimeException.class, () -> open(file));
+        Assertions.assertTrue(e.getMessage().contains("newer"), e.getMessage());
+        try (Connection conn = connect(file)) {
+            Assertions.assertEquals(1000, userVersion(conn));
+        }
+    }
+
+    @Test
+    public void testMigrationsMustBeOrdered() {
+        SchemaMigrations migrations = new SchemaMigrations().add(2, "second", stmt -> {});
+        Assertions.assertThrows(IllegalArgumentException.class, () -> migrations.add(1, "first", stmt -> {}));
+    }
+
+    @Test
+    public void testHotQueriesUseIndexes() throws Exception {
+        Path file = newDatabaseFile();
+        open(file).close();
+        try (Connection conn = connect(file)) {
+            String byName = queryPlan(conn, "SELECT " + StudentManagerImpl.STUDENT_COLUMNS + " FROM students s ORDER BY s.name, s.studentID");
+            Assertions.assertTrue(byName.contains("idx_students_name"), byName);
+            Assertions.assertFalse(byName.contains("TEMP B-TREE"), byName);
+
+            String pageByGrade = queryPlan(conn, "SELECT " + StudentManagerImpl.STUDENT_COLUMNS + " FROM students s " +
+                    "WHERE (s.grade, s.studentID) > (?, ?) ORDER BY s.grade, s.studentID LIMIT ?", 75.0, "S1", 51);
+            Assertions.assertTrue(pageByGrade.contains("idx_students_grade"), pageByGrade);
+            Assertions.assertFalse(pageByGrade.contains("TEMP B-TREE"), pageByGrade);
+
+            String courseMembers = queryPlan(conn, "SELECT studentID FROM enrollments WHERE courseCode = ?", "CS101");
+            Assertions.assertTrue(courseMembers.contains("idx_enrollments_course"), courseMembers);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.example;
+
+import java.util.Locale;
+
+/**
+ * Storage implementations of StudentManager, selected with -Dsms.backend.
+ */
+public enum StorageBackend {
+    /** StudentManagerImpl on SQLite. */
+    SQLITE,
+    /** LogStructuredStudentManager on an append-only segment log in sms.log.dir. */
+    LOG,
+    /** InMemoryStudentManager; nothing is stored. */
+    MEMORY;
+
+    /**
+     * @return The backend with the given name, ignoring case.
+     * @throws IllegalArgumentException If there is no such backend.
+     */
+    public static StorageBackend fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,126 @@
+package org.example;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Benchmark of the storage backends under the same workload: a CSV import, single-student updates,
+ * point lookups, a full listing, and reopening the storage (SQLite schema check or log replay).
+ *
+ * Usage: java org.example.StorageBenchmark [rows] [updates]   (default: 100000 1000)
+ */
+public class StorageBenchmark {
+
+    private static final String[] COURSES = {"CS101", "MATH101", "HIST101", "PHYS101"};
+    private static final int LOOKUPS = 100_000;
+
+    public static void main(String[] args) throws Exception {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int updates = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+
+        File csv = File.createTempFile("storage-bench-", ".csv");
+        try {
+            writeCsv(csv.toPath(), rows);
+            System.out.printf("%8s %12s %14s %14s %12s %12s%n", "backend", "import (ms)", "updates (ms)", "lookups (ms)", "list (ms)", "reopen (ms)");
+            for (StorageBackend backend : StorageBackend.values()) {
+                Path dir = Files.createTempDirectory("storage-bench-");
+                try {
+                    run(backend, dir, csv.getPath(), rows, updates);
+                } finally {
+                    deleteRecursively(dir);
+                }
+            }
+        } finally {
+            csv.delete();
+        }
+    }
+
+    private static void run(StorageBackend backend, Path dir, String csv, int rows, int updates) throws Exception {
+        DatabaseConfig config = new DatabaseConfig().setBackend(backend)
+                .setUrl("jdbc:sqlite:" + dir.resolve("bench.db")).setLogDirectory(dir.resolve("log").toString())
+                .setCacheMaxStudents(0).setChangeLogCompactIntervalMillis(0).setLogCompactIntervalMillis(0);
+        Random random = new Random(42);
+        StudentManager manager = StudentManagers.create(config);
+        try {
+            long start = System.nanoTime();
+            manager.importStudentsFromCSV(csv);
+            long importNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < updates; i++) {
+                String id = studentId(random.nextInt(rows));
+                Student s = manager.findStudent(id);
+                manager.updateStudent(id, new Student(id, s.getName(), s.getAge(), random.nextInt(10_001) / 100.0,
+                        s.getEnrollmentDate(), s.getCourses()));
+            }
+            long updateNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                if (manager.findStudent(studentId(random.nextInt(rows))) == null) throw new IllegalStateException("Missing student");
+            }
+            long lookupNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            int listed = manager.displayAllStudents().size();
+            long listNanos = System.nanoTime() - start;
+            if (listed != rows) throw new IllegalStateException(backend + " listed " + listed + " of " + rows + " rows");
+
+            close(manager);
+            manager = null;
+            String reopen = "-";
+            if (backend != StorageBackend.MEMORY) {
+                start = System.nanoTime();
+                manager = StudentManagers.create(config);
+                reopen = String.format("%.1f", (System.nanoTime() - start) / 1e6);
+            }
+            System.out.printf("%8s %12.1f %14.1f %14.1f %12.1f %12s%n", backend.name().toLowerCase(),
+                    importNanos / 1e6, updateNanos / 1e6, lookupNanos / 1e6, listNanos / 1e6, reopen);
+        } finally {
+            if (manager != null) close(manager);
+        }
+    }
+
+    private static void close(StudentManager manager) throws Exception {
+        if (manager instanceof AutoCloseable) ((AutoCloseable) manager).close();
+    }
+
+    private static String studentId(int i) {
+        return String.format("S%08d", i);
+    }
+
+    /**
+     * Writes generated students with one or two courses each, in the export format.
+     */
+    private static void writeCsv(Path file, int rows) throws IOException {
+        Random random = new Random(42);
+        try (BufferedWriter out = Files.newBufferedWriter(file)) {
+            out.write(StudentCsv.HEADER);
+            out.newLine();
+            for (int i = 0; i < rows; i++) {
+                int first = random.nextInt(COURSES.length);
+                List<String> courses = new ArrayList<>(List.of(COURSES[first]));
+                if (random.nextBoolean()) courses.add(COURSES[(first + 1) % COURSES.length]);
+                out.write(studentId(i) + ",Student " + (char) ('A' + random.nextInt(26)) + (char) ('a' + random.nextInt(26))
+                        + "," + (18 + random.nextInt(50)) + "," + random.nextInt(10_001) / 100.0
+                        + "," + LocalDate.of(2020, 1, 1).plusDays(random.nextInt(1500)) + "," + String.join(";", courses));
+                out.newLine();
+            }
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) Files.delete(p);
+        }
+    }
+}
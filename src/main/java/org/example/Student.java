@@ -6,6 +6,7 @@ import java.util.ArrayList;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -13,6 +14,7 @@ import java.util.stream.Collectors;
  */
 public class Student implements Serializable {
     private static final long serialVersionUID = 1L;
+    private static final Pattern VALID_NAME = Pattern.compile("^[\\p{L} .-]+$");
 
     // Attributes
     private String name;
@@ -42,13 +44,30 @@ public class Student implements Serializable {
         setGrade(grade);
     }
 
+    /**
+     * Copy constructor; the values are already valid, so they are not checked again.
+     */
+    private Student(Student other) {
+        this.studentID = other.studentID;
+        this.name = other.name;
+        this.age = other.age;
+        this.grade = other.grade;
+        this.enrollmentDate = other.enrollmentDate;
+        this.courses = new ArrayList<>(other.courses);
+    }
+
+    /**
+     * @return An independent copy; changing it does not affect this student.
+     */
+    Student copy() { return new Student(this); }
+
     // --- Getters and Setters ---
 
     public String getStudentID() { return studentID; }
 
     public String getName() { return name; }
     public void setName(String name) {
-        if (name == null || !name.matches("^[\\p{L} .-]+$")) {
+        if (name == null || !VALID_NAME.matcher(name).matches()) {
             throw new StudentValidationException("Name contains invalid characters.");
         }
         this.name = name;
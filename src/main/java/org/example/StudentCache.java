@@ -0,0 +1,322 @@
+package org.example;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded in-process cache of students keyed by ID, plus a few recent list results.
+ *
+ * Eviction follows W-TinyLFU: new entries go to a small LRU window (1% of the capacity); an entry
+ * leaving the window is admitted to the main area only if a count-min sketch says it is used more
+ * often than the entry it would evict. The main area is a segmented LRU: entries start in probation
+ * and move to the protected segment (80%) when hit again. A burst of one-off reads, such as a scan,
+ * therefore cannot flush the frequently used students. The sketch halves its counters every
+ * 10 * capacity reads so that old popularity fades.
+ *
+ * Consistency uses a version counter that every invalidation increments. A loader reads the version
+ * before going to the database and put() drops its result if the version moved in the meantime,
+ * so a load that raced with a write never stores the old row. List results are only served for
+ * the version they were loaded at.
+ *
+ * Entries are private copies: callers get their own Student objects and may change them freely.
+ * All methods are thread-safe.
+ */
+public class StudentCache {
+
+    private static final int MAX_LISTS = 16;
+
+    private final int windowCapacity;
+    private final int protectedCapacity;
+    private final int mainCapacity;
+    private final FrequencySketch sketch;
+
+    // Access-ordered: the first entry is the least recently used
+    private final LinkedHashMap<String, Student> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, Student> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, Student> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<String, CachedList> lists = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long version;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long loads;
+    private long totalLoadNanos;
+
+    private static class CachedList {
+        final long version;
+        final List<Student> students;
+
+        CachedList(long version, List<Student> students) {
+            this.version = version;
+            this.students = students;
+        }
+    }
+
+    /**
+     * @param maximumSize Maximum number of students held; a list result is cached only if it is not larger.
+     */
+    public StudentCache(int maximumSize) {
+        if (maximumSize < 1) throw new IllegalArgumentException("Cache size must be at least 1.");
+        this.windowCapacity = Math.max(1, maximumSize / 100);
+        this.mainCapacity = Math.max(1, maximumSize - windowCapacity);
+        this.protectedCapacity = (int) (mainCapacity * 0.8);
+        this.sketch = new FrequencySketch(maximumSize);
+    }
+
+    /**
+     * @return The current version; pass it to put() after loading from the database.
+     */
+    public synchronized long getVersion() { return version; }
+
+    /**
+     * @return A copy of the cached student, or null on a miss.
+     */
+    public Student get(String studentID) {
+        Student cached;
+        synchronized (this) {
+            sketch.increment(studentID);
+            cached = window.get(studentID);
+            if (cached == null) cached = protectedSegment.get(studentID);
+            if (cached == null) {
+                cached = probation.remove(studentID);
+                if (cached != null) promote(studentID, cached);
+            }
+            if (cached == null) {
+                misses++;
+                return null;
+            }
+            hits++;
+        }
+        return cached.copy();
+    }
+
+    /**
+     * Caches a student that was read from the database.
+     * @param loadedAtVersion The version read before the database was queried.
+     */
+    public synchronized void put(Student student, long loadedAtVersion) {
+        if (loadedAtVersion != version) return;
+        String id = student.getStudentID();
+        Student copy = student.copy();
+        if (window.containsKey(id)) window.put(id, copy);
+        else if (protectedSegment.containsKey(id)) protectedSegment.put(id, copy);
+        else if (probation.containsKey(id)) probation.put(id, copy);
+        else {
+            window.put(id, copy);
+            if (window.size() > windowCapacity) admitFromWindow();
+        }
+    }
+
+    /**
+     * @return Copies of the students of a cached list, or null if it is missing or outdated.
+     */
+    public List<Student> getList(String key) {
+        CachedList cached;
+        synchronized (this) {
+            cached = lists.get(key);
+            if (cached == null || cached.version != version) {
+                misses++;
+                return null;
+            }
+            hits++;
+        }
+        List<Student> students = new ArrayList<>(cached.students.size());
+        for (Student s : cached.students) students.add(s.copy());
+        return students;
+    }
+
+    /**
+     * Caches a list result; lists larger than the cache capacity are not kept.
+     * @param loadedAtVersion The version read before the database was queried.
+     */
+    public void putList(String key, List<Student> students, long loadedAtVersion) {
+        if (students.size() > windowCapacity + mainCapacity) return;
+        List<Student> copies = new ArrayList<>(students.size());
+        for (Student s : students) copies.add(s.copy());
+        synchronized (this) {
+            if (loadedAtVersion != version) return;
+            lists.put(key, new CachedList(loadedAtVersion, Collections.unmodifiableList(copies)));
+            if (lists.size() > MAX_LISTS) removeEldest(lists);
+        }
+    }
+
+    /**
+     * Records the time one database load took, for the load-time statistics.
+     */
+    public synchronized void recordLoad(long nanos) {
+        loads++;
+        totalLoadNanos += nanos;
+    }
+
+    /**
+     * Drops the student and all list results. Call after the change is committed.
+     */
+    public synchronized void invalidate(String studentID) {
+        version++;
+        if (window.remove(studentID) == null && probation.remove(studentID) == null) protectedSegment.remove(studentID);
+        lists.clear();
+    }
+
+    public synchronized void invalidateAll() {
+        version++;
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+        lists.clear();
+    }
+
+    public synchronized int size() {
+        return window.size() + probation.size() + protectedSegment.size();
+    }
+
+    public synchronized CacheStats getStats() {
+        return new CacheStats(hits, misses, evictions, loads, totalLoadNanos, size());
+    }
+
+    /**
+     * A hit in probation moves the entry to the protected segment; its least recently used entry goes back to probation.
+     */
+    private void promote(String studentID, Student student) {
+        protectedSegment.put(studentID, student);
+        if (protectedSegment.size() > protectedCapacity) {
+            Map.Entry<String, Student> demoted = removeEldest(protectedSegment);
+            probation.put(demoted.getKey(), demoted.getValue());
+        }
+    }
+
+    /**
+     * Moves the window's LRU entry to probation if there is room or if it is used more often than
+     * the main area's victim; the loser of the comparison is evicted.
+     */
+    private void admitFromWindow() {
+        Map.Entry<String, Student> candidate = removeEldest(window);
+        if (probation.size() + protectedSegment.size() < mainCapacity) {
+            probation.put(candidate.getKey(), candidate.getValue());
+            return;
+        }
+        LinkedHashMap<String, Student> victimSegment = probation.isEmpty() ? protectedSegment : probation;
+        String victim = victimSegment.keySet().iterator().next();
+        evictions++;
+        if (sketch.frequency(candidate.getKey()) > sketch.frequency(victim)) {
+            victimSegment.remove(victim);
+            probation.put(candidate.getKey(), candidate.getValue());
+        }
+    }
+
+    private static <V> Map.Entry<String, V> removeEldest(LinkedHashMap<String, V> map) {
+        Iterator<Map.Entry<String, V>> it = map.entrySet().iterator();
+        Map.Entry<String, V> eldest = it.next();
+        it.remove();
+        return eldest;
+    }
+
+    /**
+     * Count-min sketch with four rows of saturating 4-bit counters (stored in bytes).
+     * The estimate of a key is the minimum of its four counters.
+     */
+    private static class FrequencySketch {
+        private static final int MAX_COUNT = 15;
+        private static final int[] SEEDS = {0x97CB3127, 0x4A7D5E11, 0xB1C2E8A5, 0x5C3F9D27};
+
+        private final byte[][] rows = new byte[SEEDS.length][];
+        private final int mask;
+        private final int sampleSize;
+        private int samples;
+
+        FrequencySketch(int capacity) {
+            int width = Integer.highestOneBit(Math.max(16, capacity - 1)) << 1;
+            for (int i = 0; i < rows.length; i++) rows[i] = new byte[width];
+            this.mask = width - 1;
+            this.sampleSize = 10 * Math.max(capacity, 16);
+        }
+
+        void increment(String key) {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int i = 0; i < rows.length; i++) {
+                int index = index(hash, i);
+                if (rows[i][index] < MAX_COUNT) {
+                    rows[i][index]++;
+                    added = true;
+                }
+            }
+            if (added && ++samples >= sampleSize) reset();
+        }
+
+        int frequency(String key) {
+            int hash = spread(key.hashCode());
+            int min = MAX_COUNT;
+            for (int i = 0; i < rows.length; i++) min = Math.min(min, rows[i][index(hash, i)]);
+            return min;
+        }
+
+        /** Halves every counter so that the sketch follows changes in popularity. */
+        private void reset() {
+            for (byte[] row : rows) {
+                for (int j = 0; j < row.length; j++) row[j] >>= 1;
+            }
+            samples /= 2;
+        }
+
+        private int index(int hash, int row) {
+            int h = hash * SEEDS[row];
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        private static int spread(int h) {
+            h ^= h >>> 17;
+            h *= 0xED5AD4BB;
+            h ^= h >>> 11;
+            return h;
+        }
+    }
+
+    /**
+     * Snapshot of the cache counters.
+     */
+    public static class CacheStats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final long loads;
+        private final long totalLoadNanos;
+        private final int size;
+
+        CacheStats(long hits, long misses, long evictions, long loads, long totalLoadNanos, int size) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.loads = loads;
+            this.totalLoadNanos = totalLoadNanos;
+            this.size = size;
+        }
+
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public long getLoads() { return loads; }
+        public long getTotalLoadNanos() { return totalLoadNanos; }
+        public int getSize() { return size; }
+
+        public double getHitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+
+        public double getAverageLoadMillis() {
+            return loads == 0 ? 0.0 : totalLoadNanos / 1_000_000.0 / loads;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("size=%d, hits=%d, misses=%d, hitRate=%.1f%%, evictions=%d, loads=%d, avgLoad=%.3f ms",
+                    size, hits, misses, getHitRate() * 100, evictions, loads, getAverageLoadMillis());
+        }
+    }
+}
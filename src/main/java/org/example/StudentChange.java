@@ -0,0 +1,51 @@
+package org.example;
+
+/**
+ * One entry of the change log: the latest change of a student after some sequence number.
+ * For inserts and updates the student holds its current state; deletions only carry the ID.
+ */
+public class StudentChange {
+
+    public enum Type {
+        INSERT('I'), UPDATE('U'), DELETE('D');
+
+        private final char code;
+
+        Type(char code) { this.code = code; }
+
+        /** The letter stored in change_log.op and written to change exports. */
+        public char getCode() { return code; }
+
+        static Type fromCode(String code) {
+            for (Type type : values()) {
+                if (code.charAt(0) == type.code) return type;
+            }
+            throw new IllegalArgumentException("Unknown change type: " + code);
+        }
+    }
+
+    private final long seq;
+    private final Type type;
+    private final String studentID;
+    private final Student student;
+
+    public StudentChange(long seq, Type type, String studentID, Student student) {
+        this.seq = seq;
+        this.type = type;
+        this.studentID = studentID;
+        this.student = student;
+    }
+
+    /** Position in the change log; pass the last one seen to the next getChangesSince call. */
+    public long getSeq() { return seq; }
+    public Type getType() { return type; }
+    public String getStudentID() { return studentID; }
+
+    /** The current student, or null for a deletion. */
+    public Student getStudent() { return student; }
+
+    @Override
+    public String toString() {
+        return seq + " " + type + " " + studentID;
+    }
+}
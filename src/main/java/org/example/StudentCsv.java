@@ -0,0 +1,237 @@
+package org.example;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * CSV format of the student export/import.
+ * Format: ID,Name,Age,Grade,Date,Courses(semicolon separated)
+ */
+final class StudentCsv {
+
+    static final String HEADER = "ID,Name,Age,Grade,Date,Courses";
+    static final String CHANGE_HEADER_PREFIX = "Seq,Op,";
+
+    private StudentCsv() {}
+
+    /**
+     * One parsed data line: either a valid student or the error message for that line.
+     */
+    static class Row {
+        final int lineNumber;
+        final Student student;
+        final String error;
+
+        private Row(int lineNumber, Student student, String error) {
+            this.lineNumber = lineNumber;
+            this.student = student;
+            this.error = error;
+        }
+
+        static Row ok(int lineNumber, Student student) { return new Row(lineNumber, student, null); }
+        static Row failed(int lineNumber, String error) { return new Row(lineNumber, null, error); }
+
+        boolean isValid() { return student != null; }
+    }
+
+    /**
+     * Validates the header line (BOM already removed).
+     * @throws StudentImportException if the file does not look like a student export.
+     */
+    static void checkHeader(String line) {
+        if (line == null || !line.trim().toLowerCase().startsWith("id,name,age")) {
+            throw new StudentImportException("Invalid CSV header. Expected 'ID,Name,Age...'. Found: " + line);
+        }
+    }
+
+    /**
+     * Removes the Byte Order Mark that Excel writes at the start of UTF-8 files.
+     */
+    static String stripBom(String line) {
+        if (line != null && line.startsWith("\uFEFF")) return line.substring(1);
+        return line;
+    }
+
+    /**
+     * Parses and validates one data line.
+     * @return The parsed row, or null for a blank line.
+     */
+    static Row parse(int lineNumber, String line) {
+        if (line.trim().isEmpty()) return null;
+
+        String[] p = line.split(",", -1);
+        if (p.length < 6) return Row.failed(lineNumber, "Insufficient columns.");
+        try {
+            String id = p[0];
+            String name = p[1];
+            int age = Integer.parseInt(p[2]);
+            double grade = Double.parseDouble(p[3]);
+            LocalDate date = LocalDate.parse(p[4]);
+
+            ArrayList<String> courses = new ArrayList<>();
+            if (!p[5].isEmpty()) {
+                for (String c : p[5].split(";")) {
+                    if (!c.trim().isEmpty()) courses.add(c.trim());
+                }
+            }
+            return Row.ok(lineNumber, new Student(id, name, age, grade, date, courses));
+        } catch (NumberFormatException e) {
+            return Row.failed(lineNumber, "Invalid number format (Age or Grade).");
+        } catch (Exception ex) {
+            return Row.failed(lineNumber, ex.getMessage());
+        }
+    }
+
+    /**
+     * Opens an export file in the default charset. A path ending in ".gz" is gzip-compressed on a separate thread.
+     */
+    static Writer openWriter(String filePath, int gzipLevel, int bufferChars) throws IOException {
+        if (!GzipStreams.isGzip(filePath)) return new BufferedWriter(new FileWriter(filePath), bufferChars);
+        return new OutputStreamWriter(GzipStreams.compressing(new FileOutputStream(filePath), gzipLevel), Charset.defaultCharset());
+    }
+
+    /**
+     * Opens a ".gz" import file for reading lines; it is decompressed on a separate thread.
+     */
+    static BufferedReader openGzipReader(String filePath) throws IOException {
+        return new BufferedReader(new InputStreamReader(GzipStreams.decompressing(new FileInputStream(filePath)), Charset.defaultCharset()));
+    }
+
+    /**
+     * Reads an import file row by row in file order, with the same parsers as BulkCsvImporter:
+     * memory-mapped blocks for plain files and a line reader for ".gz" files. Blank lines are skipped.
+     * @throws StudentImportException If the header is invalid.
+     */
+    static void forEachRow(String filePath, Consumer<Row> action) throws IOException {
+        if (GzipStreams.isGzip(filePath)) {
+            try (BufferedReader reader = openGzipReader(filePath)) {
+                checkHeader(stripBom(reader.readLine()));
+                int lineNumber = 1;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    Row row = parse(++lineNumber, line);
+                    if (row != null) action.accept(row);
+                }
+            }
+        } else {
+            try (MappedCsvReader reader = new MappedCsvReader(Path.of(filePath), MappedCsvReader.DEFAULT_BLOCK_BYTES)) {
+                checkHeader(reader.getHeader());
+                MappedCsvReader.Block block;
+                while ((block = reader.nextBlock()) != null) {
+                    for (Row row : block.call()) action.accept(row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes rows in the export format into a reusable character buffer.
+     * Produces the same text as String.format(Locale.US, "%s,%s,%d,%.2f,%s,%s\n", ...)
+     * for grades with at most two decimals, without allocating per row.
+     */
+    static final class RowWriter {
+        private final Writer writer;
+        private final StringBuilder line = new StringBuilder(128);
+        private final char[] buffer;
+        private int size;
+
+        RowWriter(Writer writer, int bufferChars) {
+            this.writer = writer;
+            this.buffer = new char[bufferChars];
+        }
+
+        void writeHeader() throws IOException {
+            line.setLength(0);
+            line.append(HEADER).append('\n');
+            append(line);
+        }
+
+        /**
+         * Header of a change export: the student columns preceded by Seq and Op.
+         */
+        void writeChangeHeader() throws IOException {
+            line.setLength(0);
+            line.append(CHANGE_HEADER_PREFIX).append(HEADER).append('\n');
+            append(line);
+        }
+
+        /**
+         * @param courses Course codes joined with ';', or null for none.
+         */
+        void writeRow(String id, String name, int age, double grade, String date, String courses) throws IOException {
+            line.setLength(0);
+            appendStudent(id, name, age, grade, date, courses);
+            append(line);
+        }
+
+        /**
+         * Writes one change: the sequence number, the operation letter, then the student row.
+         * A deletion has only the ID.
+         */
+        void writeChange(long seq, char op, String id, String name, int age, double grade, String date, String courses) throws IOException {
+            line.setLength(0);
+            line.append(seq).append(',').append(op).append(',');
+            if (name == null) line.append(id).append(",,,,,\n");
+            else appendStudent(id, name, age, grade, date, courses);
+            append(line);
+        }
+
+        private void appendStudent(String id, String name, int age, double grade, String date, String courses) {
+            line.append(id).append(',').append(name).append(',').append(age).append(',');
+            appendGrade(line, grade);
+            line.append(',').append(date).append(',');
+            if (courses != null) line.append(courses);
+            line.append('\n');
+        }
+
+        void flush() throws IOException {
+            writer.write(buffer, 0, size);
+            size = 0;
+            writer.flush();
+        }
+
+        private void append(StringBuilder text) throws IOException {
+            int length = text.length();
+            if (size + length > buffer.length) {
+                writer.write(buffer, 0, size);
+                size = 0;
+                if (length > buffer.length) {
+                    writer.append(text);
+                    return;
+                }
+            }
+            text.getChars(0, length, buffer, size);
+            size += length;
+        }
+    }
+
+    /**
+     * Appends the grade with exactly two decimals. Grades are validated to two decimals,
+     * so the value in hundredths is exact; anything else falls back to String.format.
+     */
+    static void appendGrade(StringBuilder sb, double grade) {
+        double scaled = grade * 100;
+        long hundredths = Math.round(scaled);
+        if (grade < 0 || Math.abs(scaled - hundredths) > 1e-6 || hundredths > 1_000_000_000_000L) {
+            sb.append(String.format(Locale.US, "%.2f", grade));
+            return;
+        }
+        long fraction = hundredths % 100;
+        sb.append(hundredths / 100).append('.');
+        if (fraction < 10) sb.append('0');
+        sb.append(fraction);
+    }
+}
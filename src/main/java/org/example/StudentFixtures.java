@@ -0,0 +1,66 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Students, operations and temporary databases shared by the tests.
+ */
+final class StudentFixtures {
+
+    private StudentFixtures() {}
+
+    /**
+     * @return A new empty database file, deleted when the JVM exits.
+     */
+    static Path newDatabaseFile() throws IOException {
+        Path file = Files.createTempFile("sms-test", ".db");
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+    /**
+     * @return The configuration of a test database; the change log compactor does not run in the background.
+     */
+    static DatabaseConfig databaseConfig(Path file) {
+        return new DatabaseConfig().setUrl("jdbc:sqlite:" + file).setChangeLogCompactIntervalMillis(0);
+    }
+
+    static StudentManagerImpl newDatabaseManager() throws IOException {
+        return new StudentManagerImpl(databaseConfig(newDatabaseFile()));
+    }
+
+    static Student student(String id, String name, int age, double grade, String... courses) {
+        return new Student(id, name, age, grade, LocalDate.of(2024, 9, 1), new ArrayList<>(Arrays.asList(courses)));
+    }
+
+    /**
+     * @return One comparable line per student with every stored field.
+     */
+    static List<String> describe(List<Student> students) {
+        List<String> rows = new ArrayList<>();
+        for (Student s : students) {
+            rows.add(s.getStudentID() + "," + s.getName() + "," + s.getAge() + "," + s.getGrade() + ","
+                    + s.getEnrollmentDate() + "," + s.getCourses());
+        }
+        return rows;
+    }
+
+    /**
+     * Adds, updates and removes students, including a rejected duplicate in a bulk insert.
+     */
+    static void apply(StudentManager manager) {
+        manager.addStudent(student("S1", "Anna Berg", 20, 91.5, "CS101", "MATH101"));
+        manager.addStudent(student("S2", "Ben Cole", 22, 67.25, "HIST101"));
+        manager.addStudent(student("S3", "Åsa Dahl", 19, 0, "PHYS101"));
+        manager.addStudent(student("S4", "Anna Berg", 30, 78));
+        manager.updateStudent("S2", student("S2", "Ben Cole", 23, 72, "CS101"));
+        manager.removeStudent("S4");
+        manager.addStudents(List.of(student("S5", "Carl Eng", 25, 55.5), student("S1", "Duplicate Id", 20, 50)));
+    }
+}
@@ -1,7 +1,9 @@
 package org.example;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Student Management Interface.
@@ -14,17 +16,100 @@ public interface StudentManager {
     void removeStudent(String studentID);
     void updateStudent(String studentID, Student updatedStudent);
 
+    /**
+     * Adds all students; a student that cannot be added does not stop the others.
+     * @return One result per student, in the given order.
+     */
+    default BulkResult addStudents(List<Student> students) {
+        List<String> errors = new ArrayList<>(students.size());
+        for (Student student : students) {
+            try {
+                addStudent(student);
+                errors.add(null);
+            } catch (RuntimeException e) {
+                errors.add(e.getMessage());
+            }
+        }
+        return new BulkResult(errors);
+    }
+
+    /**
+     * Removes all given students; an ID that cannot be removed does not stop the others.
+     * @return One result per ID, in the given order.
+     */
+    default BulkResult removeStudents(List<String> studentIDs) {
+        List<String> errors = new ArrayList<>(studentIDs.size());
+        for (String studentID : studentIDs) {
+            try {
+                removeStudent(studentID);
+                errors.add(null);
+            } catch (RuntimeException e) {
+                errors.add(e.getMessage());
+            }
+        }
+        return new BulkResult(errors);
+    }
+
+    /**
+     * Updates every student with the values of the given object; the ID is taken from each student.
+     * @return One result per student, in the given order.
+     */
+    default BulkResult updateStudents(List<Student> updatedStudents) {
+        List<String> errors = new ArrayList<>(updatedStudents.size());
+        for (Student student : updatedStudents) {
+            try {
+                updateStudent(student.getStudentID(), student);
+                errors.add(null);
+            } catch (RuntimeException e) {
+                errors.add(e.getMessage());
+            }
+        }
+        return new BulkResult(errors);
+    }
+
     // Search and Display
+
+    /**
+     * Looks up one student by ID.
+     * @return The student, or null if there is no student with this ID.
+     */
+    Student findStudent(String studentID);
+
     List<Student> displayAllStudents();
     List<Student> searchStudents(String query);
 
+    /**
+     * Returns one page of students using keyset pagination.
+     * @param afterKey The key of the last row of the previous page, or null for the first page.
+     * @param limit The maximum number of students on the page.
+     * @param sort The order of the listing.
+     */
+    StudentPage listStudents(PageKey afterKey, int limit, StudentSort sort);
+
+    /**
+     * Streams every student, ordered by name, to the given action without building a list.
+     * Each student is handed over as soon as its row is read.
+     */
+    void forEachStudent(Consumer<? super Student> action);
+
     // Analytics
     double calculateAverageGrade();
+    GradeStatistics getGradeStatistics();
 
     // Import / Export
     void exportStudentsToCSV(String filePath);
     void importStudentsFromCSV(String filePath);
 
+    /**
+     * Imports students from a CSV file; the mode decides what happens to IDs that already exist.
+     */
+    void importStudentsFromCSV(String filePath, ImportMode mode);
+
     // Course Management
     Map<String, String> getAllCourses();
+
+    /**
+     * @return The credits of every course by course code, as used by Student.calculateGPA.
+     */
+    Map<String, Integer> getCourseCredits();
 }
\ No newline at end of file
@@ -1,11 +1,20 @@
 package org.example;
 
 import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.sql.*;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -13,18 +22,82 @@ import java.util.logging.Logger;
  * Implementation of the StudentManager interface.
  * Handles database interactions using JDBC, transactions, and the Singleton pattern.
  */
-public class StudentManagerImpl implements StudentManager {
+public class StudentManagerImpl implements StudentManager, AutoCloseable {
 
     private static final Logger LOGGER = Logger.getLogger(StudentManagerImpl.class.getName());
     private static StudentManagerImpl instance;
-    private static final String DB_URL = "jdbc:sqlite:student_management.db";
+    private static final int EXPORT_BUFFER_CHARS = 1 << 16;
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final int SEARCH_RESULT_LIMIT = 500;
+
+    private static final String RECOMPUTE_GRADE_STATS = "INSERT OR REPLACE INTO grade_stats " +
+            "(id, studentCount, gradeCount, sumCents, sumSquaresCents, minGrade, maxGrade) " +
+            "SELECT 1, COUNT(*), COUNT(c), COALESCE(SUM(c), 0), COALESCE(SUM(c * c), 0), MIN(g), MAX(g) FROM " +
+            "(SELECT CASE WHEN grade > 0 THEN grade END AS g, " +
+            "CASE WHEN grade > 0 THEN CAST(ROUND(grade * 100) AS INTEGER) END AS c FROM students)";
+
+    /**
+     * Student columns plus the enrollments aggregated into one "courses" column.
+     * The correlated subquery is answered from the enrollments primary key, so a list
+     * is one statement instead of one extra query per student.
+     */
+    static final String STUDENT_COLUMNS = "s.studentID, s.name, s.age, s.grade, s.enrollmentDate, " +
+            "(SELECT GROUP_CONCAT(e.courseCode, ';') FROM enrollments e WHERE e.studentID = s.studentID) AS courses";
+
+    private static final String INSERT_STUDENT = "INSERT INTO students(studentID, name, age, grade, enrollmentDate) VALUES(?,?,?,?,?)";
+    private static final String INSERT_ENROLLMENT = "INSERT INTO enrollments(studentID, courseCode) VALUES(?,?)";
+
+    /**
+     * Latest change per student after a sequence number, joined with the current row.
+     * The students columns are NULL for deleted students.
+     */
+    private static final String CHANGES_SINCE = "SELECT c.seq, c.op, c.studentID AS changedID, " + STUDENT_COLUMNS +
+            " FROM (SELECT studentID, MAX(seq) AS seq FROM change_log WHERE seq > ? GROUP BY studentID) latest" +
+            " JOIN change_log c ON c.seq = latest.seq LEFT JOIN students s ON s.studentID = c.studentID ORDER BY c.seq";
+
+    private final DatabaseConfig config;
+    private final ConnectionPool pool;
+    private final WriteQueue writes;
+    private final WalCheckpointer checkpointer;
+    private final ChangeLogCompactor changeLogCompactor;
+    private volatile boolean fullTextSearch;
+    private final TrigramIndex searchIndex;
+    private final StudentCache cache;
+    private final CourseCatalog courseCatalog;
 
     /**
      * Private constructor to enforce Singleton pattern.
      * Initializes the database connection and schema.
      */
     private StudentManagerImpl() {
+        this(DatabaseConfig.fromSystemProperties());
+    }
+
+    /**
+     * Creates a manager for the given database. Used by tests and benchmarks that need their own file.
+     * @param config The database configuration.
+     */
+    StudentManagerImpl(DatabaseConfig config) {
+        this.config = config;
+        try {
+            this.pool = new ConnectionPool(config);
+            this.writes = new WriteQueue(pool.openDedicatedConnection(), config.getWriteBatchSize(), config.getWriteQueueCapacity());
+            this.checkpointer = config.isWalMode() && config.getCheckpointIntervalMillis() > 0
+                    ? new WalCheckpointer(pool.openDedicatedConnection(), config.getCheckpointIntervalMillis())
+                    : null;
+        } catch (SQLException e) {
+            throw new RuntimeException("Cannot open database: " + e.getMessage(), e);
+        }
+        this.cache = config.getCacheMaxStudents() > 0 ? new StudentCache(config.getCacheMaxStudents()) : null;
         initializeDatabase();
+        this.courseCatalog = new CourseCatalog(pool, config.getCatalogCheckIntervalMillis());
+        this.changeLogCompactor = new ChangeLogCompactor(writes, config.getChangeLogCompactIntervalMillis());
+
+        this.searchIndex = config.isNgramSearch() ? new TrigramIndex() : null;
+        if (searchIndex != null) {
+            forEachStudent(s -> searchIndex.put(s.getStudentID(), s.getName()));
+            LOGGER.info("Search index loaded: " + searchIndex.size() + " students");
+        }
     }
 
     /**
@@ -37,91 +110,203 @@ public class StudentManagerImpl implements StudentManager {
     }
 
     /**
-     * Initializes the database schema.
-     * Creates tables for students, courses, and enrollments if they do not exist.
-     * Populates default courses if the course table is empty.
+     * The schema as ordered migrations. Append new steps with the next version; never change a released step.
      */
-    private void initializeDatabase() {
-        String createStudents = "CREATE TABLE IF NOT EXISTS students (studentID TEXT PRIMARY KEY, name TEXT NOT NULL, age INTEGER, grade REAL, enrollmentDate TEXT);";
-        String createCourses = "CREATE TABLE IF NOT EXISTS courses (courseCode TEXT PRIMARY KEY, courseName TEXT, credits INTEGER);";
-        String createEnrollments = "CREATE TABLE IF NOT EXISTS enrollments (studentID TEXT, courseCode TEXT, enrollmentGrade REAL, PRIMARY KEY (studentID, courseCode), FOREIGN KEY (studentID) REFERENCES students(studentID) ON DELETE CASCADE, FOREIGN KEY (courseCode) REFERENCES courses(courseCode) ON DELETE CASCADE);";
+    static SchemaMigrations schemaMigrations() {
+        return new SchemaMigrations()
+                .add(1, "Create students, courses and enrollments", stmt -> {
+                    stmt.execute("CREATE TABLE IF NOT EXISTS students (studentID TEXT PRIMARY KEY, name TEXT NOT NULL, age INTEGER, grade REAL, enrollmentDate TEXT);");
+                    stmt.execute("CREATE TABLE IF NOT EXISTS courses (courseCode TEXT PRIMARY KEY, courseName TEXT, credits INTEGER);");
+                    stmt.execute("CREATE TABLE IF NOT EXISTS enrollments (studentID TEXT, courseCode TEXT, enrollmentGrade REAL, PRIMARY KEY (studentID, courseCode), FOREIGN KEY (studentID) REFERENCES students(studentID) ON DELETE CASCADE, FOREIGN KEY (courseCode) REFERENCES courses(courseCode) ON DELETE CASCADE);");
+                })
+                .add(2, "Index students by name and by grade for ordered listings and keyset pagination", stmt -> {
+                    stmt.execute("CREATE INDEX IF NOT EXISTS idx_students_name ON students(name, studentID);");
+                    stmt.execute("CREATE INDEX IF NOT EXISTS idx_students_grade ON students(grade, studentID);");
+                })
+                // The primary key starts with studentID; without this index a course delete scans all enrollments to cascade
+                .add(3, "Index enrollments by course", stmt ->
+                        stmt.execute("CREATE INDEX IF NOT EXISTS idx_enrollments_course ON enrollments(courseCode, studentID);"))
+                .add(4, "Full-text search index", StudentManagerImpl::initializeSearchIndex)
+                .add(5, "Grade statistics", StudentManagerImpl::initializeGradeStatistics)
+                .add(6, "Change log", StudentManagerImpl::initializeChangeLog)
+                .add(7, "Course catalog version", CourseCatalog::initializeSchema)
+                .add(8, "Default courses", stmt -> {
+                    // Populate default courses if table is empty
+                    try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM courses")) {
+                        if (!rs.next() || rs.getInt(1) != 0) return;
+                    }
+                    // Literal rows, not CourseCatalog.DEFAULT_COURSES: a released step must not change with that constant
+                    stmt.execute("INSERT INTO courses (courseCode, courseName, credits) VALUES " +
+                            "('CS101', 'Intro to Java', 5), " +
+                            "('MATH101', 'Calculus I', 4), " +
+                            "('HIST101', 'World History', 3), " +
+                            "('PHYS101', 'Physics', 4);");
+                });
+    }
 
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement()) {
-            stmt.execute(createStudents);
-            stmt.execute(createCourses);
-            stmt.execute(createEnrollments);
-            stmt.execute("PRAGMA foreign_keys = ON;");
-
-            // Populate default courses if table is empty
-            ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM courses");
-            if (rs.next() && rs.getInt(1) == 0) {
-                stmt.execute("INSERT INTO courses (courseCode, courseName, credits) VALUES " +
-                        "('CS101', 'Intro to Java', 5), " +
-                        "('MATH101', 'Calculus I', 4), " +
-                        "('HIST101', 'World History', 3), " +
-                        "('PHYS101', 'Physics', 4);");
-            }
+    /**
+     * Brings the database schema up to date (see schemaMigrations()) in one writer transaction.
+     * @throws RuntimeException If a migration fails or the database is newer than this application.
+     */
+    private void initializeDatabase() {
+        try {
+            writes.execute(conn -> {
+                schemaMigrations().migrate(conn);
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery("SELECT 1 FROM sqlite_master WHERE name = 'students_fts'")) {
+                    fullTextSearch = rs.next();
+                }
+                return null;
+            });
         } catch (SQLException e) {
             LOGGER.log(Level.SEVERE, "Database initialization error", e);
+            // Never run against a half-migrated or newer schema
+            writes.close();
+            if (checkpointer != null) checkpointer.close();
+            pool.close();
+            throw new RuntimeException("Database initialization failed: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Retrieves all available courses from the database.
-     * @return A map where Key is CourseCode and Value is CourseName.
+     * Creates the change log and the triggers that fill it. Every insert, update or delete of a
+     * student, and every enrollment change, appends the student's ID with the next sequence number.
+     * One update can log several entries for a student (its row and its enrollments); readers only
+     * use the latest, and ChangeLogCompactor removes the others.
+     * AUTOINCREMENT keeps sequence numbers increasing even after compaction removes the newest rows.
+     */
+    private static void initializeChangeLog(Statement stmt) throws SQLException {
+        stmt.execute("CREATE TABLE IF NOT EXISTS change_log (seq INTEGER PRIMARY KEY AUTOINCREMENT, studentID TEXT NOT NULL, " +
+                "op TEXT NOT NULL CHECK (op IN ('I', 'U', 'D')), changedAt TEXT NOT NULL DEFAULT CURRENT_TIMESTAMP);");
+        stmt.execute("CREATE INDEX IF NOT EXISTS idx_change_log_student ON change_log(studentID, seq);");
+
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS change_log_insert AFTER INSERT ON students BEGIN " +
+                "INSERT INTO change_log(studentID, op) VALUES (NEW.studentID, 'I'); END;");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS change_log_update AFTER UPDATE ON students BEGIN " +
+                "INSERT INTO change_log(studentID, op) VALUES (NEW.studentID, 'U'); END;");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS change_log_delete AFTER DELETE ON students BEGIN " +
+                "INSERT INTO change_log(studentID, op) VALUES (OLD.studentID, 'D'); END;");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS change_log_enroll AFTER INSERT ON enrollments BEGIN " +
+                "INSERT INTO change_log(studentID, op) VALUES (NEW.studentID, 'U'); END;");
+        // Enrollments removed by the cascade of a student delete are covered by its 'D' entry
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS change_log_unenroll AFTER DELETE ON enrollments " +
+                "WHEN EXISTS (SELECT 1 FROM students WHERE studentID = OLD.studentID) BEGIN " +
+                "INSERT INTO change_log(studentID, op) VALUES (OLD.studentID, 'U'); END;");
+    }
+
+    /**
+     * Creates the FTS5 index over student names and IDs and the triggers that keep it in sync.
+     * The index is an external-content table over students, so the text is not stored twice.
+     * Without FTS5 support in this SQLite build nothing is created and search falls back to LIKE.
+     */
+    private static void initializeSearchIndex(Statement stmt) throws SQLException {
+        boolean exists;
+        try (ResultSet rs = stmt.executeQuery("SELECT 1 FROM sqlite_master WHERE name = 'students_fts'")) {
+            exists = rs.next();
+        }
+        try {
+            stmt.execute("CREATE VIRTUAL TABLE IF NOT EXISTS students_fts USING fts5(studentID, name, " +
+                    "content='students', content_rowid='rowid', tokenize='unicode61 remove_diacritics 2');");
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "FTS5 is not available, search falls back to LIKE", e);
+            return;
+        }
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS students_fts_insert AFTER INSERT ON students BEGIN " +
+                "INSERT INTO students_fts(rowid, studentID, name) VALUES (new.rowid, new.studentID, new.name); END;");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS students_fts_delete AFTER DELETE ON students BEGIN " +
+                "INSERT INTO students_fts(students_fts, rowid, studentID, name) VALUES ('delete', old.rowid, old.studentID, old.name); END;");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS students_fts_update AFTER UPDATE OF studentID, name ON students BEGIN " +
+                "INSERT INTO students_fts(students_fts, rowid, studentID, name) VALUES ('delete', old.rowid, old.studentID, old.name); " +
+                "INSERT INTO students_fts(rowid, studentID, name) VALUES (new.rowid, new.studentID, new.name); END;");
+        if (!exists) {
+            // Index the rows that were stored before the search index existed
+            stmt.execute("INSERT INTO students_fts(students_fts) VALUES ('rebuild');");
+        }
+    }
+
+    /**
+     * Creates the single-row grade_stats summary table and the triggers that maintain it.
+     * Inserts and deletes adjust count, sum and sum of squares in O(1); min and max only
+     * fall back to an index lookup when the removed grade was the current extreme.
+     */
+    private static void initializeGradeStatistics(Statement stmt) throws SQLException {
+        stmt.execute("CREATE TABLE IF NOT EXISTS grade_stats (id INTEGER PRIMARY KEY CHECK (id = 1), " +
+                "studentCount INTEGER NOT NULL, gradeCount INTEGER NOT NULL, sumCents INTEGER NOT NULL, " +
+                "sumSquaresCents INTEGER NOT NULL, minGrade REAL, maxGrade REAL);");
+
+        String newCents = "(CASE WHEN NEW.grade > 0 THEN CAST(ROUND(NEW.grade * 100) AS INTEGER) ELSE 0 END)";
+        String oldCents = "(CASE WHEN OLD.grade > 0 THEN CAST(ROUND(OLD.grade * 100) AS INTEGER) ELSE 0 END)";
+        String minFromIndex = "(SELECT MIN(grade) FROM students WHERE grade > 0)";
+        String maxFromIndex = "(SELECT MAX(grade) FROM students WHERE grade > 0)";
+
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS grade_stats_insert AFTER INSERT ON students BEGIN " +
+                "UPDATE grade_stats SET studentCount = studentCount + 1, gradeCount = gradeCount + (NEW.grade > 0), " +
+                "sumCents = sumCents + " + newCents + ", sumSquaresCents = sumSquaresCents + " + newCents + " * " + newCents + ", " +
+                "minGrade = CASE WHEN NEW.grade > 0 AND (minGrade IS NULL OR NEW.grade < minGrade) THEN NEW.grade ELSE minGrade END, " +
+                "maxGrade = CASE WHEN NEW.grade > 0 AND (maxGrade IS NULL OR NEW.grade > maxGrade) THEN NEW.grade ELSE maxGrade END " +
+                "WHERE id = 1; END;");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS grade_stats_delete AFTER DELETE ON students BEGIN " +
+                "UPDATE grade_stats SET studentCount = studentCount - 1, gradeCount = gradeCount - (OLD.grade > 0), " +
+                "sumCents = sumCents - " + oldCents + ", sumSquaresCents = sumSquaresCents - " + oldCents + " * " + oldCents + ", " +
+                "minGrade = CASE WHEN OLD.grade = minGrade THEN " + minFromIndex + " ELSE minGrade END, " +
+                "maxGrade = CASE WHEN OLD.grade = maxGrade THEN " + maxFromIndex + " ELSE maxGrade END " +
+                "WHERE id = 1; END;");
+        stmt.execute("CREATE TRIGGER IF NOT EXISTS grade_stats_update AFTER UPDATE OF grade ON students WHEN OLD.grade IS NOT NEW.grade BEGIN " +
+                "UPDATE grade_stats SET gradeCount = gradeCount - (OLD.grade > 0) + (NEW.grade > 0), " +
+                "sumCents = sumCents - " + oldCents + " + " + newCents + ", " +
+                "sumSquaresCents = sumSquaresCents - " + oldCents + " * " + oldCents + " + " + newCents + " * " + newCents + ", " +
+                "minGrade = CASE WHEN OLD.grade = minGrade THEN " + minFromIndex + " " +
+                "WHEN NEW.grade > 0 AND (minGrade IS NULL OR NEW.grade < minGrade) THEN NEW.grade ELSE minGrade END, " +
+                "maxGrade = CASE WHEN OLD.grade = maxGrade THEN " + maxFromIndex + " " +
+                "WHEN NEW.grade > 0 AND (maxGrade IS NULL OR NEW.grade > maxGrade) THEN NEW.grade ELSE maxGrade END " +
+                "WHERE id = 1; END;");
+
+        try (ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM grade_stats")) {
+            if (rs.next() && rs.getInt(1) == 0) stmt.execute(RECOMPUTE_GRADE_STATS);
+        }
+    }
+
+    /**
+     * Retrieves all available courses from the course catalog.
+     * @return An unmodifiable map where Key is CourseCode and Value is CourseName.
      */
     @Override
     public Map<String, String> getAllCourses() {
-        Map<String, String> courses = new java.util.HashMap<>();
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery("SELECT courseCode, courseName FROM courses")) {
-            while (rs.next()) courses.put(rs.getString("courseCode"), rs.getString("courseName"));
-        } catch (SQLException e) { LOGGER.log(Level.SEVERE, "Error loading courses", e); }
-        return courses;
+        return courseCatalog.getCourseNames();
+    }
+
+    /**
+     * @return An unmodifiable map of course credits by course code, served from the course catalog.
+     */
+    @Override
+    public Map<String, Integer> getCourseCredits() {
+        return courseCatalog.getCourseCredits();
+    }
+
+    /**
+     * @return The cached course catalog (code, name and credits of every course).
+     */
+    public CourseCatalog getCourseCatalog() {
+        return courseCatalog;
     }
 
     /**
      * Adds a new student and their course enrollments to the database.
-     * Uses transactions to ensure data integrity.
+     * The insert is queued to the writer thread and committed together with other pending writes.
      * @param student The student object to add.
      */
     @Override
     public void addStudent(Student student) {
-        String sqlStudent = "INSERT INTO students(studentID, name, age, grade, enrollmentDate) VALUES(?,?,?,?,?)";
-        String sqlEnroll = "INSERT INTO enrollments(studentID, courseCode) VALUES(?,?)";
-
-        Connection conn = null;
         try {
-            conn = DriverManager.getConnection(DB_URL);
-            conn.setAutoCommit(false); // Start transaction
-
-            try (PreparedStatement pstmt = conn.prepareStatement(sqlStudent)) {
-                pstmt.setString(1, student.getStudentID());
-                pstmt.setString(2, student.getName());
-                pstmt.setInt(3, student.getAge());
-                pstmt.setDouble(4, student.getGrade());
-                pstmt.setString(5, student.getEnrollmentDate().toString());
-                pstmt.executeUpdate();
-            }
-
-            if (!student.getCourses().isEmpty()) {
-                try (PreparedStatement pstmtEnroll = conn.prepareStatement(sqlEnroll)) {
-                    for (String code : student.getCourses()) {
-                        pstmtEnroll.setString(1, student.getStudentID());
-                        pstmtEnroll.setString(2, code);
-                        pstmtEnroll.addBatch();
-                    }
-                    pstmtEnroll.executeBatch();
-                }
-            }
-            conn.commit(); // Commit transaction
+            writes.execute(conn -> {
+                insertStudent(conn, student);
+                return null;
+            });
+            onStudentWritten(student);
             LOGGER.info("Student added: " + student.getName());
         } catch (SQLException e) {
-            rollbackQuietly(conn);
             throw new RuntimeException("Error adding student: " + e.getMessage());
-        } finally { closeQuietly(conn); }
+        }
     }
 
     /**
@@ -132,48 +317,15 @@ public class StudentManagerImpl implements StudentManager {
      */
     @Override
     public void updateStudent(String studentID, Student updatedStudent) {
-        String sqlUpdateInfo = "UPDATE students SET name = ?, age = ?, grade = ? WHERE studentID = ?";
-        String sqlDeleteEnroll = "DELETE FROM enrollments WHERE studentID = ?";
-        String sqlInsertEnroll = "INSERT INTO enrollments(studentID, courseCode) VALUES(?,?)";
-
-        Connection conn = null;
         try {
-            conn = DriverManager.getConnection(DB_URL);
-            conn.setAutoCommit(false);
-
-            try (PreparedStatement pstmt = conn.prepareStatement(sqlUpdateInfo)) {
-                pstmt.setString(1, updatedStudent.getName());
-                pstmt.setInt(2, updatedStudent.getAge());
-                pstmt.setDouble(3, updatedStudent.getGrade());
-                pstmt.setString(4, studentID);
-                pstmt.executeUpdate();
-            }
-
-            // Remove old courses
-            try (PreparedStatement pstmtDel = conn.prepareStatement(sqlDeleteEnroll)) {
-                pstmtDel.setString(1, studentID);
-                pstmtDel.executeUpdate();
-            }
-
-            // Add new courses
-            if (!updatedStudent.getCourses().isEmpty()) {
-                try (PreparedStatement pstmtIns = conn.prepareStatement(sqlInsertEnroll)) {
-                    for (String courseCode : updatedStudent.getCourses()) {
-                        pstmtIns.setString(1, studentID);
-                        pstmtIns.setString(2, courseCode);
-                        pstmtIns.addBatch();
-                    }
-                    pstmtIns.executeBatch();
-                }
-            }
-
-            conn.commit();
-            LOGGER.info("Student updated: " + studentID);
+            int rows = writes.execute(conn -> applyUpdate(conn, studentID, updatedStudent));
+            // The row is found by studentID, which need not be the ID carried by the object
+            onStudentWritten(studentID, updatedStudent.getName());
+            LOGGER.info("Student updated: " + studentID + " (" + rows + " rows changed)");
         } catch (SQLException e) {
-            rollbackQuietly(conn);
             LOGGER.log(Level.SEVERE, "Update error", e);
             throw new RuntimeException("Database error during update.");
-        } finally { closeQuietly(conn); }
+        }
     }
 
     /**
@@ -183,160 +335,864 @@ public class StudentManagerImpl implements StudentManager {
      */
     @Override
     public void removeStudent(String studentID) {
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             PreparedStatement pstmt = conn.prepareStatement("DELETE FROM students WHERE studentID = ?")) {
-            conn.createStatement().execute("PRAGMA foreign_keys = ON;");
-            pstmt.setString(1, studentID);
-            pstmt.executeUpdate();
+        try {
+            writes.execute(conn -> deleteStudent(conn, studentID));
+            onStudentRemoved(studentID);
             LOGGER.info("Student removed: " + studentID);
         } catch (SQLException e) { LOGGER.log(Level.SEVERE, "Deletion error", e); }
     }
 
+    /**
+     * Adds all students in one writer transaction with batched statements.
+     * If the batch fails, the students are retried one by one so that only the bad ones are skipped.
+     */
+    @Override
+    public BulkResult addStudents(List<Student> students) {
+        String[] errors = new String[students.size()];
+        try {
+            writes.execute(conn -> {
+                try (PreparedStatement insert = conn.prepareStatement(INSERT_STUDENT);
+                     PreparedStatement enroll = conn.prepareStatement(INSERT_ENROLLMENT)) {
+                    executeBatched(conn, students, errors, "Error adding student: ", s -> {
+                        bindStudent(insert, s);
+                        insert.addBatch();
+                        addEnrollments(enroll, s.getStudentID(), s.getCourses());
+                    }, insert, enroll);
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Error adding students: " + e.getMessage());
+        }
+        onStudentsWritten(succeeded(students, errors));
+        BulkResult result = new BulkResult(Arrays.asList(errors));
+        LOGGER.info("Students added: " + result.getSuccessCount() + " of " + students.size());
+        return result;
+    }
+
+    /**
+     * Removes all given students in one writer transaction. Unknown IDs and repeats of an ID are reported as failures.
+     */
+    @Override
+    public BulkResult removeStudents(List<String> studentIDs) {
+        String[] errors = new String[studentIDs.size()];
+        // A repeated ID is gone once its first occurrence has been deleted
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < studentIDs.size(); i++) {
+            if (!seen.add(studentIDs.get(i))) errors[i] = "Student not found: " + studentIDs.get(i);
+        }
+        try {
+            writes.execute(conn -> {
+                try (PreparedStatement delete = conn.prepareStatement("DELETE FROM students WHERE studentID = ?")) {
+                    markMissing(conn, studentIDs, errors);
+                    executeBatched(conn, studentIDs, errors, "Error removing student: ", id -> {
+                        delete.setString(1, id);
+                        delete.addBatch();
+                    }, delete);
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Error removing students: " + e.getMessage());
+        }
+        for (String studentID : succeeded(studentIDs, errors)) onStudentRemoved(studentID);
+        BulkResult result = new BulkResult(Arrays.asList(errors));
+        LOGGER.info("Students removed: " + result.getSuccessCount() + " of " + studentIDs.size());
+        return result;
+    }
+
+    /**
+     * Updates all given students in one writer transaction, like updateStudent for each of them.
+     * Unknown IDs are reported as failures.
+     */
+    @Override
+    public BulkResult updateStudents(List<Student> updatedStudents) {
+        // Diffs are read before the batch runs, so only the last update of each ID is applied;
+        // it alone decides the final state of that student anyway
+        Set<String> seen = new HashSet<>();
+        List<Integer> positions = new ArrayList<>();
+        for (int i = updatedStudents.size() - 1; i >= 0; i--) {
+            if (seen.add(updatedStudents.get(i).getStudentID())) positions.add(0, i);
+        }
+        List<Student> effective = new ArrayList<>(positions.size());
+        List<String> ids = new ArrayList<>(positions.size());
+        for (int i : positions) {
+            effective.add(updatedStudents.get(i));
+            ids.add(updatedStudents.get(i).getStudentID());
+        }
+        String[] effectiveErrors = new String[effective.size()];
+        int[] rows = {0};
+        try {
+            writes.execute(conn -> {
+                try (UpdateStatements statements = new UpdateStatements(conn)) {
+                    markMissing(conn, ids, effectiveErrors);
+                    rows[0] = executeBatched(conn, effective, effectiveErrors, "Error updating student: ",
+                            s -> statements.addToBatch(s.getStudentID(), s), statements.writeStatements());
+                }
+                return null;
+            });
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Update error", e);
+            throw new RuntimeException("Database error during update.");
+        }
+        onStudentsWritten(succeeded(effective, effectiveErrors));
+        // Earlier updates of the same ID share the outcome of the applied one
+        Map<String, String> errorById = new HashMap<>();
+        for (int i = 0; i < effective.size(); i++) errorById.put(ids.get(i), effectiveErrors[i]);
+        String[] errors = new String[updatedStudents.size()];
+        for (int i = 0; i < errors.length; i++) errors[i] = errorById.get(updatedStudents.get(i).getStudentID());
+        BulkResult result = new BulkResult(Arrays.asList(errors));
+        LOGGER.info("Students updated: " + result.getSuccessCount() + " of " + updatedStudents.size() + " (" + rows[0] + " rows changed)");
+        return result;
+    }
+
+    /**
+     * Adds one item's parameters to the batches of the statements passed to executeBatched.
+     */
+    private interface BatchItem<T> {
+        void addToBatch(T item) throws SQLException;
+    }
+
+    /**
+     * Runs the items as one JDBC batch inside a savepoint. If the batch fails, it is rolled back and
+     * the items are replayed one by one, each in its own savepoint, so only the failing ones are skipped.
+     * Runs on the writer thread.
+     * @param errors One slot per item. Items that already have an error are skipped; failures are filled in.
+     * @return The number of rows written.
+     */
+    private static <T> int executeBatched(Connection conn, List<T> items, String[] errors, String errorPrefix,
+                                           BatchItem<T> batchItem, PreparedStatement... statements) throws SQLException {
+        try (Statement control = conn.createStatement()) {
+            control.execute("SAVEPOINT bulk");
+            try {
+                for (int i = 0; i < items.size(); i++) {
+                    if (errors[i] == null) batchItem.addToBatch(items.get(i));
+                }
+                int rows = 0;
+                for (PreparedStatement pstmt : statements) rows += sum(pstmt.executeBatch());
+                control.execute("RELEASE bulk");
+                return rows;
+            } catch (SQLException batchError) {
+                for (PreparedStatement pstmt : statements) pstmt.clearBatch();
+                control.execute("ROLLBACK TO bulk");
+                control.execute("RELEASE bulk");
+            }
+
+            int rows = 0;
+            for (int i = 0; i < items.size(); i++) {
+                if (errors[i] != null) continue;
+                control.execute("SAVEPOINT bulk_item");
+                try {
+                    batchItem.addToBatch(items.get(i));
+                    int itemRows = 0;
+                    for (PreparedStatement pstmt : statements) itemRows += sum(pstmt.executeBatch());
+                    control.execute("RELEASE bulk_item");
+                    rows += itemRows;
+                } catch (SQLException e) {
+                    for (PreparedStatement pstmt : statements) pstmt.clearBatch();
+                    control.execute("ROLLBACK TO bulk_item");
+                    control.execute("RELEASE bulk_item");
+                    errors[i] = errorPrefix + e.getMessage();
+                }
+            }
+            return rows;
+        }
+    }
+
+    private static void markMissing(Connection conn, List<String> studentIDs, String[] errors) throws SQLException {
+        try (PreparedStatement exists = conn.prepareStatement("SELECT 1 FROM students WHERE studentID = ?")) {
+            for (int i = 0; i < studentIDs.size(); i++) {
+                exists.setString(1, studentIDs.get(i));
+                try (ResultSet rs = exists.executeQuery()) {
+                    if (!rs.next()) errors[i] = "Student not found: " + studentIDs.get(i);
+                }
+            }
+        }
+    }
+
+    private static <T> List<T> succeeded(List<T> items, String[] errors) {
+        List<T> result = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            if (errors[i] == null) result.add(items.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Keeps in-memory structures in step with a committed insert or update.
+     */
+    private void onStudentWritten(Student student) {
+        onStudentWritten(student.getStudentID(), student.getName());
+    }
+
+    private void onStudentWritten(String studentID, String name) {
+        if (searchIndex != null) searchIndex.put(studentID, name);
+        if (cache != null) cache.invalidate(studentID);
+    }
+
+    private void onStudentsWritten(List<Student> students) {
+        for (Student student : students) onStudentWritten(student);
+    }
+
+    /**
+     * Keeps in-memory structures in step with a committed delete.
+     */
+    private void onStudentRemoved(String studentID) {
+        if (searchIndex != null) searchIndex.remove(studentID);
+        if (cache != null) cache.invalidate(studentID);
+    }
+
+    /**
+     * Inserts a student row and its enrollments. Runs on the writer connection.
+     */
+    private void insertStudent(Connection conn, Student student) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(INSERT_STUDENT)) {
+            bindStudent(pstmt, student);
+            pstmt.executeUpdate();
+        }
+
+        if (!student.getCourses().isEmpty()) {
+            try (PreparedStatement pstmtEnroll = conn.prepareStatement(INSERT_ENROLLMENT)) {
+                addEnrollments(pstmtEnroll, student.getStudentID(), student.getCourses());
+                pstmtEnroll.executeBatch();
+            }
+        }
+    }
+
+    private static void bindStudent(PreparedStatement pstmt, Student student) throws SQLException {
+        pstmt.setString(1, student.getStudentID());
+        pstmt.setString(2, student.getName());
+        pstmt.setInt(3, student.getAge());
+        pstmt.setDouble(4, student.getGrade());
+        pstmt.setString(5, student.getEnrollmentDate().toString());
+    }
+
+    private static void addEnrollments(PreparedStatement pstmt, String studentID, List<String> courses) throws SQLException {
+        for (String code : courses) {
+            pstmt.setString(1, studentID);
+            pstmt.setString(2, code);
+            pstmt.addBatch();
+        }
+    }
+
+    /**
+     * Applies an update as a diff against the stored row; see UpdateStatements. Runs on the writer connection.
+     * @return The number of rows written.
+     */
+    private int applyUpdate(Connection conn, String studentID, Student updatedStudent) throws SQLException {
+        try (UpdateStatements statements = new UpdateStatements(conn)) {
+            if (!statements.addToBatch(studentID, updatedStudent)) throw new SQLException("Student not found: " + studentID);
+            return statements.executeBatches();
+        }
+    }
+
+    /**
+     * Statements of the update path, reused across the students of a bulk update.
+     * An update is applied as a diff against the stored row: the student row is only written if
+     * name, age or grade changed, and only added or dropped courses touch the enrollments table.
+     */
+    private static final class UpdateStatements implements AutoCloseable {
+        final PreparedStatement current;
+        final PreparedStatement currentCourses;
+        final PreparedStatement update;
+        final PreparedStatement unenroll;
+        final PreparedStatement enroll;
+
+        UpdateStatements(Connection conn) throws SQLException {
+            current = conn.prepareStatement("SELECT name, age, grade FROM students WHERE studentID = ?");
+            currentCourses = conn.prepareStatement("SELECT courseCode FROM enrollments WHERE studentID = ?");
+            update = conn.prepareStatement("UPDATE students SET name = ?, age = ?, grade = ? WHERE studentID = ?");
+            unenroll = conn.prepareStatement("DELETE FROM enrollments WHERE studentID = ? AND courseCode = ?");
+            enroll = conn.prepareStatement(INSERT_ENROLLMENT);
+        }
+
+        /**
+         * Reads the stored state and adds the necessary changes to the batches.
+         * @return false if the student does not exist.
+         */
+        boolean addToBatch(String studentID, Student updated) throws SQLException {
+            current.setString(1, studentID);
+            try (ResultSet rs = current.executeQuery()) {
+                if (!rs.next()) return false;
+                double grade = rs.getDouble("grade");
+                boolean unchanged = !rs.wasNull() && Double.compare(updated.getGrade(), grade) == 0
+                        && updated.getName().equals(rs.getString("name")) && updated.getAge() == rs.getInt("age");
+                if (!unchanged) {
+                    update.setString(1, updated.getName());
+                    update.setInt(2, updated.getAge());
+                    update.setDouble(3, updated.getGrade());
+                    update.setString(4, studentID);
+                    update.addBatch();
+                }
+            }
+
+            Set<String> stored = new HashSet<>();
+            currentCourses.setString(1, studentID);
+            try (ResultSet rs = currentCourses.executeQuery()) {
+                while (rs.next()) stored.add(rs.getString(1));
+            }
+            Set<String> wanted = new LinkedHashSet<>(updated.getCourses());
+            for (String code : stored) {
+                if (wanted.contains(code)) continue;
+                unenroll.setString(1, studentID);
+                unenroll.setString(2, code);
+                unenroll.addBatch();
+            }
+            for (String code : wanted) {
+                if (stored.contains(code)) continue;
+                enroll.setString(1, studentID);
+                enroll.setString(2, code);
+                enroll.addBatch();
+            }
+            return true;
+        }
+
+        /**
+         * @return The number of rows written.
+         */
+        int executeBatches() throws SQLException {
+            return sum(update.executeBatch()) + sum(unenroll.executeBatch()) + sum(enroll.executeBatch());
+        }
+
+        PreparedStatement[] writeStatements() {
+            return new PreparedStatement[]{update, unenroll, enroll};
+        }
+
+        @Override
+        public void close() throws SQLException {
+            current.close();
+            currentCourses.close();
+            update.close();
+            unenroll.close();
+            enroll.close();
+        }
+    }
+
+    private static int sum(int[] counts) {
+        int total = 0;
+        for (int count : counts) {
+            if (count > 0) total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Deletes a student row; enrollments follow via CASCADE. Runs on the writer connection.
+     * @return The number of deleted student rows.
+     */
+    private int deleteStudent(Connection conn, String studentID) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM students WHERE studentID = ?")) {
+            pstmt.setString(1, studentID);
+            return pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Point lookup by primary key, served from the student cache when possible.
+     */
+    @Override
+    public Student findStudent(String studentID) {
+        if (cache == null) return loadStudent(studentID);
+        Student cached = cache.get(studentID);
+        if (cached != null) return cached;
+        long version = cache.getVersion();
+        long start = System.nanoTime();
+        Student student = loadStudent(studentID);
+        cache.recordLoad(System.nanoTime() - start);
+        if (student != null) cache.put(student, version);
+        return student;
+    }
+
+    private Student loadStudent(String studentID) {
+        List<Student> found = getStudentsByQuery("SELECT " + STUDENT_COLUMNS + " FROM students s WHERE s.studentID = ?", studentID);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
     @Override
     public List<Student> displayAllStudents() {
-        return getStudentsByQuery("SELECT * FROM students ORDER BY name");
+        return cachedList("all", () -> queryStudents("SELECT " + STUDENT_COLUMNS + " FROM students s ORDER BY s.name, s.studentID"));
+    }
+
+    /**
+     * Loads a list result from the database for cachedList.
+     */
+    private interface ListLoader {
+        List<Student> load() throws SQLException;
+    }
+
+    /**
+     * Returns a list result from the cache, or loads and caches it. Any write drops all cached lists.
+     * A failed load is logged and returns an empty list that is not cached, so the next call retries.
+     */
+    private List<Student> cachedList(String key, ListLoader loader) {
+        try {
+            if (cache == null) return loader.load();
+            List<Student> cached = cache.getList(key);
+            if (cached != null) return cached;
+            long version = cache.getVersion();
+            long start = System.nanoTime();
+            List<Student> students = loader.load();
+            cache.recordLoad(System.nanoTime() - start);
+            cache.putList(key, students, version);
+            return students;
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error retrieving list", e);
+            return new ArrayList<>();
+        }
     }
 
+    /**
+     * Searches students by name or ID.
+     * Every word of the query is matched as a token prefix in the FTS5 index and results are ranked by relevance (bm25).
+     * @param query The text typed by the user.
+     * @return Up to SEARCH_RESULT_LIMIT matching students, best matches first.
+     */
     @Override
     public List<Student> searchStudents(String query) {
-        String sql = "SELECT * FROM students WHERE name LIKE '%" + query + "%' OR studentID LIKE '%" + query + "%'";
-        return getStudentsByQuery(sql);
+        if (query == null || query.isBlank()) return displayAllStudents();
+        return cachedList("search:" + query, () -> loadSearchResults(query));
     }
 
-    private List<Student> getStudentsByQuery(String sql) {
-        List<Student> students = new ArrayList<>();
-        try (Connection conn = DriverManager.getConnection(DB_URL);
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) students.add(mapRowToStudent(conn, rs));
+    private List<Student> loadSearchResults(String query) throws SQLException {
+        if (searchIndex != null) return getStudentsByIds(searchIndex.search(query.trim(), SEARCH_RESULT_LIMIT));
+
+        if (!fullTextSearch) {
+            String pattern = "%" + escapeLike(query) + "%";
+            return queryStudents("SELECT " + STUDENT_COLUMNS + " FROM students s WHERE s.name LIKE ? ESCAPE '\\' OR s.studentID LIKE ? ESCAPE '\\' " +
+                    "ORDER BY s.name, s.studentID LIMIT ?", pattern, pattern, SEARCH_RESULT_LIMIT);
+        }
+
+        String match = toMatchExpression(query);
+        if (match.isEmpty()) return new ArrayList<>();
+        return queryStudents("SELECT " + STUDENT_COLUMNS + " FROM students_fts f JOIN students s ON s.rowid = f.rowid " +
+                "WHERE students_fts MATCH ? ORDER BY f.rank LIMIT ?", match, SEARCH_RESULT_LIMIT);
+    }
+
+    /**
+     * Loads the given students and returns them in the order of the IDs.
+     * Cached students are taken from the cache; the rest are read with one IN (...) query.
+     */
+    private List<Student> getStudentsByIds(List<String> ids) throws SQLException {
+        if (ids.isEmpty()) return new ArrayList<>();
+        Map<String, Student> byId = new java.util.HashMap<>();
+        List<String> missing = ids;
+        if (cache != null) {
+            missing = new ArrayList<>();
+            for (String id : ids) {
+                Student s = cache.get(id);
+                if (s != null) byId.put(id, s);
+                else missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long version = cache != null ? cache.getVersion() : 0;
+            long start = System.nanoTime();
+            String placeholders = String.join(",", java.util.Collections.nCopies(missing.size(), "?"));
+            List<Student> loaded = queryStudents("SELECT " + STUDENT_COLUMNS + " FROM students s WHERE s.studentID IN (" + placeholders + ")", missing.toArray());
+            if (cache != null) cache.recordLoad(System.nanoTime() - start);
+            for (Student s : loaded) {
+                byId.put(s.getStudentID(), s);
+                if (cache != null) cache.put(s, version);
+            }
+        }
+        List<Student> students = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            Student s = byId.get(id);
+            if (s != null) students.add(s);
+        }
+        return students;
+    }
+
+    /**
+     * Escapes the LIKE wildcards % and _ (and the escape character itself), so they match literally with ESCAPE '\'.
+     */
+    static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    /**
+     * Turns free text into an FTS5 query: each word becomes a quoted prefix term, all terms must match.
+     * Quoting keeps FTS5 operators typed by the user from being interpreted.
+     */
+    static String toMatchExpression(String query) {
+        StringBuilder match = new StringBuilder();
+        for (String token : query.split("[^\\p{L}\\p{N}]+")) {
+            if (token.isEmpty()) continue;
+            if (match.length() > 0) match.append(' ');
+            match.append('"').append(token).append("\"*");
+        }
+        return match.toString();
+    }
+
+    /**
+     * Returns a page ordered by the sort column and student ID.
+     * The WHERE clause seeks past the previous key on the matching index, so deep pages cost the same as the first one.
+     */
+    @Override
+    public StudentPage listStudents(PageKey afterKey, int limit, StudentSort sort) {
+        if (limit < 1) throw new IllegalArgumentException("Page size must be at least 1.");
+
+        String column = "s." + sort.getColumn();
+        String orderBy = sort == StudentSort.ID ? column : column + ", s.studentID";
+        StringBuilder sql = new StringBuilder("SELECT ").append(STUDENT_COLUMNS).append(" FROM students s");
+        List<Object> params = new ArrayList<>();
+        if (afterKey != null) {
+            if (sort == StudentSort.ID) {
+                sql.append(" WHERE s.studentID > ?");
+            } else {
+                sql.append(" WHERE (").append(column).append(", s.studentID) > (?, ?)");
+                params.add(afterKey.getSortValue());
+            }
+            params.add(afterKey.getStudentID());
+        }
+        sql.append(" ORDER BY ").append(orderBy).append(" LIMIT ?");
+        params.add(limit + 1); // one extra row tells whether there is a next page
+
+        List<Student> students = getStudentsByQuery(sql.toString(), params.toArray());
+        PageKey nextKey = null;
+        if (students.size() > limit) {
+            students.remove(limit);
+            nextKey = PageKey.after(students.get(limit - 1), sort);
+        }
+        return new StudentPage(students, nextKey);
+    }
+
+    /**
+     * Reads the students straight off the cursor, STREAM_FETCH_SIZE rows at a time.
+     * The read connection is held until the scan finishes; enable WAL mode if scans run next to writes.
+     */
+    @Override
+    public void forEachStudent(Consumer<? super Student> action) {
+        try (Connection conn = pool.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT " + STUDENT_COLUMNS + " FROM students s ORDER BY s.name, s.studentID")) {
+            pstmt.setFetchSize(STREAM_FETCH_SIZE);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) action.accept(mapRowToStudent(rs));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error reading students: " + e.getMessage(), e);
+        }
+    }
+
+    private List<Student> getStudentsByQuery(String sql, Object... params) {
+        try {
+            return queryStudents(sql, params);
         } catch (SQLException e) { LOGGER.log(Level.SEVERE, "Error retrieving list", e); }
+        return new ArrayList<>();
+    }
+
+    private List<Student> queryStudents(String sql, Object... params) throws SQLException {
+        List<Student> students = new ArrayList<>();
+        try (Connection conn = pool.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int i = 0; i < params.length; i++) pstmt.setObject(i + 1, params[i]);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) students.add(mapRowToStudent(rs));
+            }
+        }
         return students;
     }
 
+    /**
+     * Average of all grades above zero, read from the grade_stats summary row.
+     */
     @Override
     public double calculateAverageGrade() {
-        return displayAllStudents().stream().mapToDouble(Student::getGrade).filter(g -> g > 0).average().orElse(0.0);
+        return getGradeStatistics().getAverage();
+    }
+
+    /**
+     * Reads the trigger-maintained grade aggregates. This is a single-row lookup regardless of table size.
+     */
+    @Override
+    public GradeStatistics getGradeStatistics() {
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement()) {
+            return readGradeStatistics(stmt);
+        } catch (SQLException e) { LOGGER.log(Level.SEVERE, "Error reading grade statistics", e); }
+        return new GradeStatistics(0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Consistency check: recomputes the grade aggregates from the students table and stores them.
+     * Logs a warning if the maintained values had drifted from the recomputed ones. Both are read in
+     * the same writer task, so concurrent writes cannot look like drift.
+     * @return The recomputed statistics.
+     */
+    public GradeStatistics recomputeGradeStatistics() {
+        try {
+            return writes.execute(conn -> {
+                try (Statement stmt = conn.createStatement()) {
+                    GradeStatistics maintained = readGradeStatistics(stmt);
+                    stmt.execute(RECOMPUTE_GRADE_STATS);
+                    GradeStatistics recomputed = readGradeStatistics(stmt);
+                    if (!recomputed.equals(maintained)) {
+                        LOGGER.warning("Grade statistics were out of sync. Maintained: " + maintained + "; recomputed: " + recomputed);
+                    }
+                    return recomputed;
+                }
+            });
+        } catch (SQLException e) {
+            throw new RuntimeException("Error recomputing grade statistics: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return The row of grade_stats, or empty statistics if it has not been created yet.
+     */
+    private GradeStatistics readGradeStatistics(Statement stmt) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("SELECT studentCount, gradeCount, sumCents, sumSquaresCents, minGrade, maxGrade FROM grade_stats WHERE id = 1")) {
+            return rs.next() ? mapRowToGradeStatistics(rs) : new GradeStatistics(0, 0, 0, 0, 0, 0);
+        }
+    }
+
+    private GradeStatistics mapRowToGradeStatistics(ResultSet rs) throws SQLException {
+        return new GradeStatistics(rs.getLong("studentCount"), rs.getLong("gradeCount"), rs.getLong("sumCents"),
+                rs.getLong("sumSquaresCents"), rs.getDouble("minGrade"), rs.getDouble("maxGrade"));
     }
 
     /**
      * Exports student data to a CSV file.
      * Format: ID,Name,Age,Grade,Date,Courses(semicolon separated)
-     * FIX: Uses Locale.US to ensure dot is used as decimal separator.
+     * Rows are streamed from one ordered cursor and formatted without String.format,
+     * so memory use does not grow with the table. Grades always use a dot as decimal separator.
+     * A path ending in ".gz" is gzip-compressed on a separate thread.
      * @param filePath The destination file path.
      */
     @Override
     public void exportStudentsToCSV(String filePath) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
-            writer.write("ID,Name,Age,Grade,Date,Courses\n");
-            for (Student s : displayAllStudents()) {
-                String coursesStr = String.join(";", s.getCourses());
-                writer.write(String.format(java.util.Locale.US, "%s,%s,%d,%.2f,%s,%s\n",
-                        s.getStudentID(), s.getName(), s.getAge(), s.getGrade(), s.getEnrollmentDate(), coursesStr));
+        long start = System.nanoTime();
+        long rows = 0;
+        try (Writer writer = StudentCsv.openWriter(filePath, config.getGzipLevel(), EXPORT_BUFFER_CHARS);
+             Connection conn = pool.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT " + STUDENT_COLUMNS + " FROM students s ORDER BY s.name, s.studentID")) {
+            pstmt.setFetchSize(STREAM_FETCH_SIZE);
+            StudentCsv.RowWriter out = new StudentCsv.RowWriter(writer, EXPORT_BUFFER_CHARS);
+            out.writeHeader();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    out.writeRow(rs.getString("studentID"), rs.getString("name"), rs.getInt("age"), rs.getDouble("grade"),
+                            rs.getString("enrollmentDate"), rs.getString("courses"));
+                    rows++;
+                }
             }
-        } catch (IOException e) { throw new RuntimeException("Export error: " + e.getMessage()); }
+            out.flush();
+        } catch (IOException | SQLException e) { throw new RuntimeException("Export error: " + e.getMessage()); }
+
+        long elapsed = System.nanoTime() - start;
+        LOGGER.info(String.format(Locale.US, "Exported %d rows in %.1f ms (%.0f rows/s)",
+                rows, elapsed / 1e6, elapsed == 0 ? 0.0 : rows * 1e9 / elapsed));
     }
 
     /**
      * Imports student data from a CSV file.
      * Includes BOM handling for Excel files and header validation.
+     * Rows are inserted in batched chunks on the writer connection; see BulkCsvImporter.
+     * A path ending in ".gz" is decompressed on a separate thread while it is parsed.
      * @param filePath The source file path.
-     * @throws StudentImportException if the file format is invalid.
+     * @throws StudentImportException if the file format is invalid or some lines could not be imported.
      */
     @Override
     public void importStudentsFromCSV(String filePath) {
-        List<String> errors = new ArrayList<>();
-        int lineNum = 0;
-        int successCount = 0;
+        importStudentsFromCSV(filePath, ImportMode.INSERT_ONLY);
+    }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
-            String line = reader.readLine(); // Read Header
+    /**
+     * Imports student data from a CSV file like importStudentsFromCSV(String), but rows whose ID
+     * already exists update that student in the UPSERT and REPLACE_ENROLLMENTS modes.
+     * Re-importing an unchanged file writes no student rows, so a full re-sync costs about as much as the insert path.
+     */
+    @Override
+    public void importStudentsFromCSV(String filePath, ImportMode mode) {
+        ImportResult result;
+        try {
+            BulkCsvImporter importer = new BulkCsvImporter(writes, config.getImportChunkSize(), config.getImportParseThreads(), mode, this::onStudentsWritten);
+            result = GzipStreams.isGzip(filePath)
+                    ? importer.importLines(StudentCsv.openGzipReader(filePath))
+                    : importer.importFile(filePath);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "File read error", e);
+            throw new StudentImportException("File error: " + e.getMessage());
+        }
+        LOGGER.info(result.toString());
+        result.throwIfFailed();
+    }
 
-            // --- FIX: Handle Byte Order Mark (BOM) from Excel ---
-            if (line != null && line.startsWith("\uFEFF")) {
-                line = line.substring(1);
-            }
+    /**
+     * Helper method to map a ResultSet row selected with STUDENT_COLUMNS to a Student object.
+     * The enrolled courses come from the aggregated "courses" column.
+     */
+    private Student mapRowToStudent(ResultSet rs) throws SQLException {
+        String id = rs.getString("studentID");
+        ArrayList<String> courses = new ArrayList<>();
+        String codes = rs.getString("courses");
+        if (codes != null) {
+            for (String code : codes.split(";")) courses.add(code);
+        }
+        return new Student(id, rs.getString("name"), rs.getInt("age"), rs.getDouble("grade"), LocalDate.parse(rs.getString("enrollmentDate")), courses);
+    }
 
-            lineNum++;
+    /**
+     * Writes all students to a binary snapshot file (see StudentSnapshot), streaming from one cursor.
+     * The file only appears once the snapshot is complete.
+     * @return The number of students written.
+     */
+    public long exportSnapshot(String filePath) {
+        long start = System.nanoTime();
+        try (StudentSnapshot.Writer writer = new StudentSnapshot.Writer(Path.of(filePath))) {
+            forEachStudent(s -> {
+                try {
+                    writer.add(s);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.finish();
+            LOGGER.info(String.format(Locale.US, "Snapshot of %d students written in %.1f ms", writer.count(), (System.nanoTime() - start) / 1e6));
+            return writer.count();
+        } catch (IOException | UncheckedIOException e) {
+            throw new RuntimeException("Export error: " + e.getMessage());
+        }
+    }
 
-            // 1. Validate Header
-            if (line == null || !line.trim().toLowerCase().startsWith("id,name,age")) {
-                // Use our new custom exception!
-                throw new StudentImportException("Invalid CSV header. Expected 'ID,Name,Age...'. Found: " + line);
-            }
+    /**
+     * Adds the students of a binary snapshot file, like importStudentsFromCSV.
+     * @throws StudentImportException if the file is not a valid snapshot or some students could not be stored.
+     */
+    public void importSnapshot(String filePath) {
+        ImportResult result;
+        try {
+            result = new BulkCsvImporter(writes, config.getImportChunkSize(), config.getImportParseThreads(), ImportMode.INSERT_ONLY, this::onStudentsWritten)
+                    .importSnapshot(Path.of(filePath));
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Snapshot read error", e);
+            throw new StudentImportException("File error: " + e.getMessage());
+        }
+        LOGGER.info(result.toString());
+        result.throwIfFailed();
+    }
 
-            while ((line = reader.readLine()) != null) {
-                lineNum++;
-                String[] p = line.split(",", -1);
-
-                if (line.trim().isEmpty()) continue;
-
-                if (p.length >= 6) {
-                    try {
-                        String id = p[0];
-                        String name = p[1];
-                        int age = Integer.parseInt(p[2]);
-                        double grade = Double.parseDouble(p[3]);
-                        LocalDate date = LocalDate.parse(p[4]);
-
-                        ArrayList<String> courses = new ArrayList<>();
-                        if (!p[5].isEmpty()) {
-                            for (String c : p[5].split(";")) {
-                                if (!c.trim().isEmpty()) courses.add(c.trim());
-                            }
-                        }
-
-                        addStudent(new Student(id, name, age, grade, date, courses));
-                        successCount++;
-
-                    } catch (NumberFormatException e) {
-                        errors.add("Line " + lineNum + ": Invalid number format (Age or Grade).");
-                    } catch (Exception ex) {
-                        errors.add("Line " + lineNum + ": " + ex.getMessage());
-                    }
-                } else {
-                    errors.add("Line " + lineNum + ": Insufficient columns.");
+    /**
+     * @return The sequence number of the newest change. Take it before a full export and pass it
+     *         to getChangesSince or exportChangesToCSV to receive everything that changed afterwards.
+     */
+    public long getCurrentChangeSeq() {
+        try (Connection conn = pool.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(seq), 0) FROM change_log")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        } catch (SQLException e) {
+            throw new RuntimeException("Error reading change log: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the latest change of every student changed after the given sequence number, oldest first.
+     * Inserts and updates carry the student's current state. The cost depends on the number of
+     * changes, not on the table size.
+     * @param afterSeq The last sequence number already processed, or 0 for the whole log.
+     * @param limit The maximum number of changes; continue from the seq of the last one.
+     */
+    public List<StudentChange> getChangesSince(long afterSeq, int limit) {
+        List<StudentChange> changes = new ArrayList<>();
+        try (Connection conn = pool.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(CHANGES_SINCE + " LIMIT ?")) {
+            pstmt.setLong(1, afterSeq);
+            pstmt.setInt(2, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    StudentChange.Type type = changeType(rs);
+                    changes.add(new StudentChange(rs.getLong("seq"), type, rs.getString("changedID"),
+                            type == StudentChange.Type.DELETE ? null : mapRowToStudent(rs)));
                 }
             }
+        } catch (SQLException e) {
+            throw new RuntimeException("Error reading change log: " + e.getMessage());
+        }
+        return changes;
+    }
 
-            // 2. Report Errors
-            if (!errors.isEmpty()) {
-                StringBuilder sb = new StringBuilder();
-                sb.append("Import finished. Success: ").append(successCount).append(", Failed: ").append(errors.size()).append("\nErrors:\n");
-                for (int i = 0; i < Math.min(errors.size(), 5); i++) {
-                    sb.append("- ").append(errors.get(i)).append("\n");
+    /**
+     * Writes the changes after the given sequence number to a CSV file: Seq,Op followed by the
+     * usual student columns, where Op is I, U or D and deleted students only have an ID.
+     * @return The sequence number to pass to the next delta export.
+     */
+    public long exportChangesToCSV(long afterSeq, String filePath) {
+        long start = System.nanoTime();
+        long lastSeq = afterSeq;
+        long rows = 0;
+        try (Writer writer = StudentCsv.openWriter(filePath, config.getGzipLevel(), EXPORT_BUFFER_CHARS);
+             Connection conn = pool.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(CHANGES_SINCE)) {
+            pstmt.setFetchSize(STREAM_FETCH_SIZE);
+            pstmt.setLong(1, afterSeq);
+            StudentCsv.RowWriter out = new StudentCsv.RowWriter(writer, EXPORT_BUFFER_CHARS);
+            out.writeChangeHeader();
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    lastSeq = rs.getLong("seq");
+                    StudentChange.Type type = changeType(rs);
+                    if (type == StudentChange.Type.DELETE) {
+                        out.writeChange(lastSeq, type.getCode(), rs.getString("changedID"), null, 0, 0, null, null);
+                    } else {
+                        out.writeChange(lastSeq, type.getCode(), rs.getString("studentID"), rs.getString("name"), rs.getInt("age"),
+                                rs.getDouble("grade"), rs.getString("enrollmentDate"), rs.getString("courses"));
+                    }
+                    rows++;
                 }
-                if (errors.size() > 5) sb.append("...and ").append(errors.size() - 5).append(" more.");
-
-                // Throw the custom exception
-                throw new StudentImportException(sb.toString());
             }
+            out.flush();
+        } catch (IOException | SQLException e) { throw new RuntimeException("Export error: " + e.getMessage()); }
 
-        } catch (IOException e) {
-            LOGGER.log(Level.SEVERE, "File read error", e);
-            throw new StudentImportException("File error: " + e.getMessage());
-        }
+        long elapsed = System.nanoTime() - start;
+        LOGGER.info(String.format(Locale.US, "Exported %d changes after seq %d in %.1f ms", rows, afterSeq, elapsed / 1e6));
+        return lastSeq;
     }
 
     /**
-     * Helper method to map a ResultSet row to a Student object.
-     * Also fetches the list of enrolled courses.
+     * Compacts the change log now instead of waiting for the background run.
+     * @return The number of removed entries.
      */
-    private Student mapRowToStudent(Connection conn, ResultSet rs) throws SQLException {
-        String id = rs.getString("studentID");
-        ArrayList<String> courses = new ArrayList<>();
-        try (PreparedStatement pstmt = conn.prepareStatement("SELECT courseCode FROM enrollments WHERE studentID = ?")) {
-            pstmt.setString(1, id);
-            try (ResultSet rsC = pstmt.executeQuery()) {
-                while (rsC.next()) courses.add(rsC.getString("courseCode"));
-            }
+    public int compactChangeLog() {
+        try {
+            return changeLogCompactor.compact();
+        } catch (SQLException e) {
+            throw new RuntimeException("Change log compaction failed: " + e.getMessage());
         }
-        return new Student(id, rs.getString("name"), rs.getInt("age"), rs.getDouble("grade"), LocalDate.parse(rs.getString("enrollmentDate")), courses);
     }
 
-    private void rollbackQuietly(Connection conn) {
-        if (conn != null) try { conn.rollback(); } catch (SQLException e) {}
+    /**
+     * A student that no longer exists is reported as deleted, whatever the logged operation.
+     */
+    private static StudentChange.Type changeType(ResultSet rs) throws SQLException {
+        if (rs.getString("studentID") == null) return StudentChange.Type.DELETE;
+        StudentChange.Type logged = StudentChange.Type.fromCode(rs.getString("op"));
+        return logged == StudentChange.Type.DELETE ? StudentChange.Type.INSERT : logged;
+    }
+
+    /**
+     * Returns the student cache counters (hit rate, evictions, load time), or null if the cache is disabled.
+     */
+    public StudentCache.CacheStats getCacheStats() {
+        return cache != null ? cache.getStats() : null;
     }
-    private void closeQuietly(Connection conn) {
-        if (conn != null) try { conn.close(); } catch (SQLException e) {}
+
+    /**
+     * Returns the current connection pool metrics (active, idle, wait time, creations).
+     */
+    public ConnectionPool.PoolStats getPoolStats() {
+        return pool.getStats();
     }
+
+    /**
+     * Flushes pending writes, then closes the writer and all pooled connections.
+     */
+    @Override
+    public void close() {
+        changeLogCompactor.close();
+        writes.close();
+        if (checkpointer != null) checkpointer.close();
+        pool.close();
+    }
+
 }
\ No newline at end of file
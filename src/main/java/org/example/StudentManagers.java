@@ -0,0 +1,54 @@
+package org.example;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Creates the StudentManager of the configured storage backend, so that the backends can be
+ * swapped and compared without changes to the callers.
+ */
+public final class StudentManagers {
+    private static final Logger LOGGER = Logger.getLogger(StudentManagers.class.getName());
+
+    private static StudentManager instance;
+
+    private StudentManagers() {}
+
+    /**
+     * @return A new manager for config.getBackend(); the caller closes it if it is AutoCloseable.
+     */
+    public static StudentManager create(DatabaseConfig config) {
+        switch (config.getBackend()) {
+            case LOG: return new LogStructuredStudentManager(config);
+            case MEMORY: return new InMemoryStudentManager(config);
+            default: return new StudentManagerImpl(config);
+        }
+    }
+
+    /**
+     * Returns the application-wide manager for the "sms.*" system properties.
+     * SQLite is served by the StudentManagerImpl singleton; other backends are closed on JVM shutdown.
+     */
+    public static synchronized StudentManager getDefault() {
+        if (instance == null) {
+            DatabaseConfig config = DatabaseConfig.fromSystemProperties();
+            if (config.getBackend() == StorageBackend.SQLITE) {
+                instance = StudentManagerImpl.getInstance();
+            } else {
+                instance = create(config);
+                if (instance instanceof AutoCloseable) {
+                    AutoCloseable closeable = (AutoCloseable) instance;
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                        try {
+                            closeable.close();
+                        } catch (Exception e) {
+                            LOGGER.log(Level.WARNING, "Error closing student storage", e);
+                        }
+                    }, "student-storage-shutdown"));
+                }
+            }
+            LOGGER.info("Student storage backend: " + config.getBackend());
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,26 @@
+package org.example;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of students returned by StudentManager.listStudents.
+ */
+public class StudentPage {
+    private final List<Student> students;
+    private final PageKey nextKey;
+
+    public StudentPage(List<Student> students, PageKey nextKey) {
+        this.students = Collections.unmodifiableList(students);
+        this.nextKey = nextKey;
+    }
+
+    public List<Student> getStudents() { return students; }
+
+    /**
+     * @return The key to pass as afterKey for the next page, or null if this is the last page.
+     */
+    public PageKey getNextKey() { return nextKey; }
+
+    public boolean hasMore() { return nextKey != null; }
+}
@@ -0,0 +1,374 @@
+package org.example;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Compact binary columnar snapshot of students, for fast backups, restores and cache warm-up.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * "SMSSNAP" version(1)
+ * block*            rows grouped per column, see Writer.encodeBlock
+ * footer            course dictionary, then offset, length, row count and column offsets of each block
+ * footerOffset(8) "SMSSNAP" version(1)
+ * </pre>
+ * IDs in canonical UUID form are stored as two longs, other IDs as UTF-8 (decided per block).
+ * Grades are stored in hundredths, dates as epoch days and course codes as indexes into the dictionary.
+ * Blocks are read through their own memory mapping, so file size is not limited by one mapping.
+ */
+public final class StudentSnapshot {
+
+    private static final byte[] MAGIC = {'S', 'M', 'S', 'S', 'N', 'A', 'P', 1};
+    private static final int TRAILER_BYTES = 8 + MAGIC.length;
+    private static final int BLOCK_ROWS = 65_536;
+    private static final int COLUMNS = 6;
+    private static final int DATE_CACHE_SIZE = 4096;
+    private static final byte IDS_UUID = 0;
+    private static final byte IDS_UTF8 = 1;
+
+    private StudentSnapshot() {}
+
+    /**
+     * Writes the students to a snapshot file.
+     * @return The number of students written.
+     */
+    public static long write(Path path, Iterable<Student> students) throws IOException {
+        try (Writer writer = new Writer(path)) {
+            for (Student s : students) writer.add(s);
+            writer.finish();
+            return writer.count();
+        }
+    }
+
+    /**
+     * Reads all students of a snapshot file, in the order they were written.
+     */
+    public static List<Student> read(Path path) throws IOException {
+        try (Reader reader = new Reader(path)) {
+            List<Student> students = new ArrayList<>((int) Math.min(reader.rowCount(), Integer.MAX_VALUE));
+            for (int b = 0; b < reader.blockCount(); b++) students.addAll(reader.readBlock(b));
+            return students;
+        }
+    }
+
+    /**
+     * Streams students into a snapshot file one block at a time; memory use is bounded by one block.
+     * The blocks go to a temporary file next to the target, which finish() completes and renames into
+     * place. Closing without finish() discards it, so a failed export never leaves a truncated
+     * snapshot that reads as complete.
+     */
+    public static final class Writer implements Closeable {
+        private final Path path;
+        private final Path tempPath;
+        private final OutputStream out;
+        private final List<Student> pending = new ArrayList<>(BLOCK_ROWS);
+        private final Map<String, Integer> courseIndex = new HashMap<>();
+        private final List<String> courses = new ArrayList<>();
+        private final ByteArrayOutputStream footer = new ByteArrayOutputStream();
+        private final DataOutputStream footerData = new DataOutputStream(footer);
+        private long position;
+        private int blocks;
+        private long count;
+        private boolean finished;
+
+        public Writer(Path path) throws IOException {
+            this.path = path;
+            this.tempPath = path.resolveSibling(path.getFileName() + ".tmp");
+            out = new BufferedOutputStream(Files.newOutputStream(tempPath), 1 << 16);
+            write(MAGIC);
+        }
+
+        public void add(Student student) throws IOException {
+            pending.add(student);
+            count++;
+            if (pending.size() == BLOCK_ROWS) flushBlock();
+        }
+
+        public long count() { return count; }
+
+        /**
+         * Writes the footer and moves the completed file to the target path, replacing any previous file.
+         */
+        public void finish() throws IOException {
+            flushBlock();
+            long footerOffset = position;
+            DataOutputStream data = new DataOutputStream(out);
+            data.writeInt(courses.size());
+            for (String code : courses) {
+                byte[] utf = code.getBytes(StandardCharsets.UTF_8);
+                data.writeInt(utf.length);
+                data.write(utf);
+            }
+            data.writeInt(blocks);
+            footer.writeTo(data);
+            data.writeLong(footerOffset);
+            data.write(MAGIC);
+            out.close();
+            Files.move(tempPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            finished = true;
+        }
+
+        /**
+         * Discards the temporary file unless finish() succeeded.
+         */
+        @Override
+        public void close() throws IOException {
+            if (finished) return;
+            try {
+                out.close();
+            } finally {
+                Files.deleteIfExists(tempPath);
+            }
+        }
+
+        private void write(byte[] bytes) throws IOException {
+            out.write(bytes);
+            position += bytes.length;
+        }
+
+        private void flushBlock() throws IOException {
+            if (pending.isEmpty()) return;
+            int[] columnOffsets = new int[COLUMNS];
+            byte[] block = encodeBlock(pending, columnOffsets);
+            footerData.writeLong(position);
+            footerData.writeInt(block.length);
+            footerData.writeInt(pending.size());
+            for (int offset : columnOffsets) footerData.writeInt(offset);
+            write(block);
+            blocks++;
+            pending.clear();
+        }
+
+        /**
+         * Column order: IDs, names, ages, grades, dates, courses.
+         */
+        private byte[] encodeBlock(List<Student> rows, int[] columnOffsets) throws IOException {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(rows.size() * 48);
+            DataOutputStream data = new DataOutputStream(bytes);
+
+            columnOffsets[0] = data.size();
+            boolean uuids = rows.stream().allMatch(s -> isCanonicalUuid(s.getStudentID()));
+            data.writeByte(uuids ? IDS_UUID : IDS_UTF8);
+            if (uuids) {
+                for (Student s : rows) {
+                    UUID id = UUID.fromString(s.getStudentID());
+                    data.writeLong(id.getMostSignificantBits());
+                    data.writeLong(id.getLeastSignificantBits());
+                }
+            } else {
+                writeStrings(data, rows, true);
+            }
+
+            columnOffsets[1] = data.size();
+            writeStrings(data, rows, false);
+
+            columnOffsets[2] = data.size();
+            for (Student s : rows) data.writeByte(s.getAge());
+
+            columnOffsets[3] = data.size();
+            for (Student s : rows) data.writeInt((int) Math.round(s.getGrade() * 100));
+
+            columnOffsets[4] = data.size();
+            for (Student s : rows) data.writeInt((int) s.getEnrollmentDate().toEpochDay());
+
+            columnOffsets[5] = data.size();
+            int refs = 0;
+            data.writeInt(0);
+            for (Student s : rows) {
+                refs += s.getCourses().size();
+                data.writeInt(refs);
+            }
+            for (Student s : rows) {
+                for (String code : s.getCourses()) data.writeInt(courseIndex.computeIfAbsent(code, this::addCourse));
+            }
+            data.flush();
+            return bytes.toByteArray();
+        }
+
+        private int addCourse(String code) {
+            courses.add(code);
+            return courses.size() - 1;
+        }
+
+        /**
+         * Offsets (n + 1 ints) followed by the UTF-8 bytes of all values.
+         */
+        private static void writeStrings(DataOutputStream data, List<Student> rows, boolean ids) throws IOException {
+            byte[][] encoded = new byte[rows.size()][];
+            int offset = 0;
+            data.writeInt(0);
+            for (int i = 0; i < encoded.length; i++) {
+                Student s = rows.get(i);
+                encoded[i] = (ids ? s.getStudentID() : s.getName()).getBytes(StandardCharsets.UTF_8);
+                offset += encoded[i].length;
+                data.writeInt(offset);
+            }
+            for (byte[] value : encoded) data.write(value);
+        }
+
+        private static boolean isCanonicalUuid(String id) {
+            if (id.length() != 36) return false;
+            try {
+                return UUID.fromString(id).toString().equals(id);
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Reads a snapshot through memory mappings. Blocks are independent and can be decoded in any order.
+     */
+    public static final class Reader implements Closeable {
+        private final FileChannel channel;
+        private final String[] courses;
+        private final long[] blockOffsets;
+        private final int[] blockLengths;
+        private final int[] blockRows;
+        private final int[][] columnOffsets;
+
+        public Reader(Path path) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                long size = channel.size();
+                if (size < MAGIC.length + TRAILER_BYTES || !hasMagic(channel.map(FileChannel.MapMode.READ_ONLY, 0, MAGIC.length))) {
+                    throw new IOException("Not a student snapshot: " + path);
+                }
+                MappedByteBuffer trailer = channel.map(FileChannel.MapMode.READ_ONLY, size - TRAILER_BYTES, TRAILER_BYTES);
+                long footerOffset = trailer.getLong();
+                if (!hasMagic(trailer.slice(8, MAGIC.length)) || footerOffset < MAGIC.length || footerOffset > size - TRAILER_BYTES) {
+                    throw new IOException("Snapshot is truncated or corrupt: " + path);
+                }
+                ByteBuffer footer = channel.map(FileChannel.MapMode.READ_ONLY, footerOffset, size - TRAILER_BYTES - footerOffset);
+
+                courses = new String[footer.getInt()];
+                for (int i = 0; i < courses.length; i++) {
+                    byte[] utf = new byte[footer.getInt()];
+                    footer.get(utf);
+                    courses[i] = new String(utf, StandardCharsets.UTF_8);
+                }
+                int blocks = footer.getInt();
+                blockOffsets = new long[blocks];
+                blockLengths = new int[blocks];
+                blockRows = new int[blocks];
+                columnOffsets = new int[blocks][COLUMNS];
+                for (int b = 0; b < blocks; b++) {
+                    blockOffsets[b] = footer.getLong();
+                    blockLengths[b] = footer.getInt();
+                    blockRows[b] = footer.getInt();
+                    for (int c = 0; c < COLUMNS; c++) columnOffsets[b][c] = footer.getInt();
+                }
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                if (e instanceof IOException) throw (IOException) e;
+                throw new IOException("Snapshot is corrupt: " + e.getMessage(), e);
+            }
+        }
+
+        public int blockCount() { return blockOffsets.length; }
+
+        public int blockRows(int block) { return blockRows[block]; }
+
+        public long rowCount() {
+            long rows = 0;
+            for (int r : blockRows) rows += r;
+            return rows;
+        }
+
+        /**
+         * Decodes one block. Safe to call from several threads.
+         */
+        public List<Student> readBlock(int block) throws IOException {
+            try {
+                return decodeBlock(block);
+            } catch (RuntimeException e) {
+                throw new IOException("Snapshot block " + block + " is corrupt: " + e.getMessage(), e);
+            }
+        }
+
+        private List<Student> decodeBlock(int block) throws IOException {
+            ByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, blockOffsets[block], blockLengths[block]);
+            int n = blockRows[block];
+            int[] columns = columnOffsets[block];
+
+            String[] ids = new String[n];
+            if (data.get(columns[0]) == IDS_UUID) {
+                ByteBuffer col = data.slice(columns[0] + 1, n * 16);
+                for (int i = 0; i < n; i++) ids[i] = new UUID(col.getLong(), col.getLong()).toString();
+            } else {
+                readStrings(data, columns[0] + 1, n, ids);
+            }
+            String[] names = readStrings(data, columns[1], n, new String[n]);
+            ByteBuffer ages = data.slice(columns[2], n);
+            ByteBuffer grades = data.slice(columns[3], n * 4);
+            ByteBuffer dates = data.slice(columns[4], n * 4);
+            ByteBuffer courseOffsets = data.slice(columns[5], (n + 1) * 4);
+            ByteBuffer courseRefs = data.slice(columns[5] + (n + 1) * 4, data.limit() - columns[5] - (n + 1) * 4);
+
+            List<Student> students = new ArrayList<>(n);
+            LocalDate[] dateCache = new LocalDate[DATE_CACHE_SIZE]; // LocalDate is immutable; dates repeat a lot
+            int from = courseOffsets.getInt();
+            for (int i = 0; i < n; i++) {
+                int to = courseOffsets.getInt();
+                ArrayList<String> codes = new ArrayList<>(to - from);
+                for (int r = from; r < to; r++) codes.add(courses[courseRefs.getInt()]);
+                from = to;
+                int epochDay = dates.getInt();
+                LocalDate date = dateCache[epochDay & (DATE_CACHE_SIZE - 1)];
+                if (date == null || date.toEpochDay() != epochDay) {
+                    date = LocalDate.ofEpochDay(epochDay);
+                    dateCache[epochDay & (DATE_CACHE_SIZE - 1)] = date;
+                }
+                students.add(new Student(ids[i], names[i], ages.get(), grades.getInt() / 100.0, date, codes));
+            }
+            return students;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private static String[] readStrings(ByteBuffer data, int column, int n, String[] values) {
+            ByteBuffer offsets = data.slice(column, (n + 1) * 4);
+            int base = column + (n + 1) * 4;
+            byte[] scratch = new byte[256];
+            int from = offsets.getInt();
+            for (int i = 0; i < n; i++) {
+                int to = offsets.getInt();
+                int length = to - from;
+                if (length > scratch.length) scratch = new byte[Math.max(length, scratch.length * 2)];
+                data.get(base + from, scratch, 0, length);
+                values[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+                from = to;
+            }
+            return values;
+        }
+
+        private static boolean hasMagic(ByteBuffer buffer) {
+            byte[] magic = new byte[MAGIC.length];
+            buffer.get(0, magic);
+            return Arrays.equals(magic, MAGIC);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.example;
+
+import java.util.Comparator;
+
+/**
+ * Sort orders supported by keyset pagination.
+ * Every order is made unique by the student ID as a tie-breaker, so a page key identifies one position.
+ */
+public enum StudentSort {
+    NAME("name", Comparator.comparing(Student::getName).thenComparing(Student::getStudentID)),
+    ID("studentID", Comparator.comparing(Student::getStudentID)),
+    GRADE("grade", Comparator.comparingDouble(Student::getGrade).thenComparing(Student::getStudentID));
+
+    private final String column;
+    private final Comparator<Student> comparator;
+
+    StudentSort(String column, Comparator<Student> comparator) {
+        this.column = column;
+        this.comparator = comparator;
+    }
+
+    /**
+     * @return The students column this order is based on.
+     */
+    public String getColumn() { return column; }
+
+    /**
+     * @return The same order as the SQL ORDER BY, for implementations that sort in memory.
+     */
+    public Comparator<Student> comparator() { return comparator; }
+
+    /**
+     * @return True if the student comes after the page key in this order, i.e. belongs on the next page.
+     */
+    public boolean isAfter(Student student, PageKey key) {
+        int c;
+        switch (this) {
+            case NAME: c = student.getName().compareTo((String) key.getSortValue()); break;
+            case GRADE: c = Double.compare(student.getGrade(), ((Number) key.getSortValue()).doubleValue()); break;
+            default: c = 0;
+        }
+        return c != 0 ? c > 0 : student.getStudentID().compareTo(key.getStudentID()) > 0;
+    }
+
+    /**
+     * @return The value of the sort column for the given student.
+     */
+    public Object valueOf(Student student) {
+        switch (this) {
+            case NAME: return student.getName();
+            case GRADE: return student.getGrade();
+            default: return student.getStudentID();
+        }
+    }
+}
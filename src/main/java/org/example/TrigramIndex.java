@@ -0,0 +1,298 @@
+package org.example;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory trigram index over student names and IDs for search-as-you-type.
+ * Matching is case-insensitive and ignores diacritics.
+ *
+ * Every student gets an ordinal; each trigram of its lower-cased text maps to a sorted posting list of ordinals.
+ * A substring query intersects the posting lists of its trigrams and verifies the few remaining candidates.
+ * Queries shorter than three characters use word-start grams and match word prefixes.
+ * Removed or updated entries are only marked dead and the index is rebuilt once dead entries outnumber live ones.
+ */
+public class TrigramIndex {
+
+    private static final char BOUNDARY = '\u0001';
+    private static final char SEPARATOR = '\u0000';
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final Map<String, Integer> ordinalById = new HashMap<>();
+    private final List<Entry> entries = new ArrayList<>();
+    private final BitSet live = new BitSet();
+    private int deadCount;
+
+    private static class Entry {
+        final String studentID;
+        final String name;
+        final String text; // lower-case "name \0 id"
+
+        Entry(String studentID, String name) {
+            this.studentID = studentID;
+            this.name = name;
+            this.text = normalize(name) + SEPARATOR + normalize(studentID);
+        }
+    }
+
+    /**
+     * Growable sorted int array. Ordinals are only ever appended in increasing order.
+     */
+    private static class PostingList {
+        int[] ordinals = new int[4];
+        int size;
+
+        void add(int ordinal) {
+            if (size > 0 && ordinals[size - 1] == ordinal) return;
+            if (size == ordinals.length) ordinals = Arrays.copyOf(ordinals, size * 2);
+            ordinals[size++] = ordinal;
+        }
+    }
+
+    /**
+     * Adds a student or replaces the indexed text of an existing one.
+     */
+    public void put(String studentID, String name) {
+        lock.writeLock().lock();
+        try {
+            markDead(ordinalById.remove(studentID));
+            int ordinal = entries.size();
+            Entry entry = new Entry(studentID, name);
+            entries.add(entry);
+            live.set(ordinal);
+            ordinalById.put(studentID, ordinal);
+            addGrams(entry.text, ordinal);
+            if (deadCount > ordinalById.size()) rebuild();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a student from the index.
+     */
+    public void remove(String studentID) {
+        lock.writeLock().lock();
+        try {
+            markDead(ordinalById.remove(studentID));
+            if (deadCount > ordinalById.size()) rebuild();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            clearStructures();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds students whose name or ID contains the query (case-insensitive).
+     * Name prefixes rank first, then word prefixes, then any other substring.
+     * Word-start matches are collected first from the word-start grams, so broad queries stop
+     * as soon as enough good matches are found instead of visiting every candidate.
+     * @param query The search text.
+     * @param limit The maximum number of IDs to return.
+     * @return Matching student IDs, best first; equal ranks are ordered by name.
+     */
+    public List<String> search(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit < 1) return new ArrayList<>();
+
+        List<List<Entry>> byScore = List.of(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        lock.readLock().lock();
+        try {
+            long[] grams = gramsOf(q);
+            // Pass 1: candidates with a word starting with the query (scores 0 and 1)
+            long[] wordStartGrams = q.length() < 3 ? grams : append(grams, gram(BOUNDARY, q.charAt(0), q.charAt(1)));
+            collect(wordStartGrams, q, limit, byScore, 0, 1);
+            // Pass 2: any other substring match (score 2), only while the result is not full
+            if (q.length() >= 3 && byScore.get(0).size() + byScore.get(1).size() < limit) {
+                collect(grams, q, limit, byScore, 2, 2);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<String> ids = new ArrayList<>(limit);
+        for (List<Entry> bucket : byScore) {
+            bucket.sort(Comparator.comparing(e -> e.name));
+            for (Entry e : bucket) {
+                if (ids.size() == limit) return ids;
+                ids.add(e.studentID);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Visits the intersection of the posting lists in ordinal order and buckets verified matches
+     * with a score in [minScore, maxScore]. Stops early once the best reachable bucket is full.
+     */
+    private void collect(long[] grams, String q, int limit, List<List<Entry>> byScore, int minScore, int maxScore) {
+        PostingList[] lists = new PostingList[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.get(grams[i]);
+            if (lists[i] == null) return;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(l -> l.size));
+
+        // Walk the shortest list and advance a cursor in each longer list (merge intersection)
+        int[] cursors = new int[lists.length];
+        PostingList smallest = lists[0];
+        for (int i = 0; i < smallest.size; i++) {
+            int ordinal = smallest.ordinals[i];
+            if (!live.get(ordinal) || !inAll(lists, cursors, ordinal)) continue;
+            Entry entry = entries.get(ordinal);
+            int score = score(entry.text, q);
+            if (score < minScore || score > maxScore) continue;
+            List<Entry> bucket = byScore.get(score);
+            if (bucket.size() < limit) bucket.add(entry);
+            if (byScore.get(minScore).size() == limit) return;
+            if (minScore == 2 && byScore.get(0).size() + byScore.get(1).size() + bucket.size() >= limit) return;
+        }
+    }
+
+    /**
+     * Lower-cases and strips diacritics, so "Zoë" is found by "zoe".
+     */
+    private static String normalize(String text) {
+        return COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    private static long[] gramsOf(String q) {
+        if (q.length() == 1) return new long[]{gram(BOUNDARY, BOUNDARY, q.charAt(0))};
+        if (q.length() == 2) return new long[]{gram(BOUNDARY, q.charAt(0), q.charAt(1))};
+        long[] grams = new long[q.length() - 2];
+        for (int i = 0; i < grams.length; i++) grams[i] = gram(q.charAt(i), q.charAt(i + 1), q.charAt(i + 2));
+        return grams;
+    }
+
+    private static long[] append(long[] grams, long gram) {
+        long[] result = Arrays.copyOf(grams, grams.length + 1);
+        result[grams.length] = gram;
+        return result;
+    }
+
+    /**
+     * Galloping search: first position at or after from whose ordinal is not smaller than the target.
+     */
+    private static int advance(PostingList list, int from, int target) {
+        int step = 1;
+        int hi = from;
+        while (hi < list.size && list.ordinals[hi] < target) {
+            from = hi + 1;
+            hi += step;
+            step <<= 1;
+        }
+        int index = Arrays.binarySearch(list.ordinals, from, Math.min(hi, list.size), target);
+        return index >= 0 ? index : -index - 1;
+    }
+
+    private static boolean inAll(PostingList[] lists, int[] cursors, int ordinal) {
+        for (int i = 1; i < lists.length; i++) {
+            PostingList list = lists[i];
+            int c = advance(list, cursors[i], ordinal);
+            cursors[i] = c;
+            if (c == list.size || list.ordinals[c] != ordinal) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return 0 for a name prefix, 1 for a word prefix, 2 for another substring, -1 for no match.
+     */
+    private static int score(String text, String q) {
+        int index = text.indexOf(q);
+        int best = -1;
+        while (index >= 0) {
+            int score = index == 0 ? 0 : isWordStart(text, index) ? 1 : 2;
+            if (best < 0 || score < best) best = score;
+            if (best == 0) break;
+            index = text.indexOf(q, index + 1);
+        }
+        // Short queries only match at word starts
+        if (q.length() < 3 && best == 2) return -1;
+        return best;
+    }
+
+    private static boolean isWordStart(String text, int index) {
+        return index == 0 || !Character.isLetterOrDigit(text.charAt(index - 1));
+    }
+
+    private void addGrams(String text, int ordinal) {
+        for (int i = 0; i < text.length(); i++) {
+            if (isWordStart(text, i) && Character.isLetterOrDigit(text.charAt(i))) {
+                postingFor(gram(BOUNDARY, BOUNDARY, text.charAt(i))).add(ordinal);
+                if (i + 1 < text.length()) postingFor(gram(BOUNDARY, text.charAt(i), text.charAt(i + 1))).add(ordinal);
+            }
+            if (i + 2 < text.length()) postingFor(gram(text.charAt(i), text.charAt(i + 1), text.charAt(i + 2))).add(ordinal);
+        }
+    }
+
+    private PostingList postingFor(long gram) {
+        return postings.computeIfAbsent(gram, g -> new PostingList());
+    }
+
+    private static long gram(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    private void markDead(Integer ordinal) {
+        if (ordinal == null) return;
+        live.clear(ordinal);
+        deadCount++;
+    }
+
+    /**
+     * Re-numbers the live entries and rebuilds all posting lists without the dead ones.
+     */
+    private void rebuild() {
+        List<Entry> alive = new ArrayList<>(ordinalById.size());
+        for (int i = live.nextSetBit(0); i >= 0; i = live.nextSetBit(i + 1)) alive.add(entries.get(i));
+        clearStructures();
+        for (Entry entry : alive) {
+            int ordinal = entries.size();
+            entries.add(entry);
+            live.set(ordinal);
+            ordinalById.put(entry.studentID, ordinal);
+            addGrams(entry.text, ordinal);
+        }
+    }
+
+    private void clearStructures() {
+        postings.clear();
+        ordinalById.clear();
+        entries.clear();
+        live.clear();
+        deadCount = 0;
+    }
+}
@@ -0,0 +1,62 @@
+package org.example;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs PASSIVE WAL checkpoints in the background on its own connection.
+ * A passive checkpoint never waits for readers or the writer, so it can run next to an import.
+ */
+public class WalCheckpointer implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(WalCheckpointer.class.getName());
+
+    private final Connection conn;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * @param conn A writable connection owned by the checkpointer.
+     * @param intervalMillis Time between two checkpoints.
+     */
+    public WalCheckpointer(Connection conn, long intervalMillis) {
+        this.conn = conn;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "sqlite-wal-checkpoint");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkpoint, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Copies committed WAL frames back into the database file.
+     */
+    public void checkpoint() {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("PRAGMA wal_checkpoint(PASSIVE);")) {
+            if (rs.next()) {
+                LOGGER.fine("WAL checkpoint: busy=" + rs.getInt(1) + ", log=" + rs.getInt(2) + ", checkpointed=" + rs.getInt(3));
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.WARNING, "WAL checkpoint failed", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try { conn.close(); } catch (SQLException e) {}
+    }
+}
@@ -0,0 +1,214 @@
+package org.example;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Single-writer queue for SQLite mutations.
+ * One dedicated thread owns the write connection. It drains all pending tasks (up to the batch size),
+ * runs them in one transaction and commits once (group commit). Every task runs inside its own
+ * savepoint, so a failing task is rolled back alone and does not affect the rest of the batch.
+ */
+public class WriteQueue implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(WriteQueue.class.getName());
+
+    /**
+     * A unit of work executed on the writer connection.
+     */
+    @FunctionalInterface
+    public interface WriteTask<T> {
+        T execute(Connection conn) throws SQLException;
+    }
+
+    private static class PendingWrite<T> {
+        final WriteTask<T> task;
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        T result;
+        Throwable error;
+
+        PendingWrite(WriteTask<T> task) { this.task = task; }
+
+        void run(Connection conn) throws Exception { result = task.execute(conn); }
+        void complete() {
+            if (error != null) future.completeExceptionally(error);
+            else future.complete(result);
+        }
+    }
+
+    private static final PendingWrite<Void> SHUTDOWN = new PendingWrite<>(conn -> null);
+
+    private final Connection conn;
+    private final BlockingQueue<PendingWrite<?>> queue;
+    private final int maxBatchSize;
+    private final Thread writer;
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong tasks = new AtomicLong();
+    // Submitters hold the read lock from the closed check until the task is queued; close() sets closed under the write lock
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private boolean closed;
+
+    /**
+     * Starts the writer thread.
+     * @param conn The connection owned by the writer; it is closed together with the queue.
+     * @param maxBatchSize The maximum number of tasks committed in one transaction.
+     * @param capacity The maximum number of pending tasks before submitters block.
+     */
+    public WriteQueue(Connection conn, int maxBatchSize, int capacity) {
+        this.conn = conn;
+        this.maxBatchSize = maxBatchSize;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.writer = new Thread(this::runLoop, "sqlite-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queues a task for the writer thread.
+     * @return A future completed once the transaction containing the task has committed.
+     */
+    public <T> CompletableFuture<T> submit(WriteTask<T> task) {
+        PendingWrite<T> pending = new PendingWrite<>(task);
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                pending.future.completeExceptionally(new SQLException("Write queue is closed."));
+                return pending.future;
+            }
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.future.completeExceptionally(new SQLException("Interrupted while queueing a write.", e));
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        return pending.future;
+    }
+
+    /**
+     * Queues a task and waits until it has been committed.
+     * @return The value returned by the task.
+     * @throws SQLException if the task or the commit failed.
+     */
+    public <T> T execute(WriteTask<T> task) throws SQLException {
+        try {
+            return submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a write.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) throw (SQLException) cause;
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new SQLException(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * @return The number of committed transactions.
+     */
+    public long getBatchCount() { return batches.get(); }
+
+    /**
+     * @return The average number of tasks per committed transaction.
+     */
+    public double getAverageBatchSize() {
+        long b = batches.get();
+        return b == 0 ? 0.0 : (double) tasks.get() / b;
+    }
+
+    /**
+     * Lets the writer finish the queued tasks, then stops it and closes the write connection.
+     * Tasks submitted after this call fail; none can be queued behind the shutdown marker.
+     */
+    @Override
+    public void close() {
+        closeLock.writeLock().lock();
+        try {
+            if (closed) return;
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        try {
+            queue.put(SHUTDOWN);
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejectQueued();
+        try { conn.close(); } catch (SQLException e) {}
+    }
+
+    private void runLoop() {
+        List<PendingWrite<?>> batch = new ArrayList<>(maxBatchSize);
+        boolean running = true;
+        while (running) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, maxBatchSize - 1);
+            } catch (InterruptedException e) {
+                break;
+            }
+            int shutdownAt = batch.indexOf(SHUTDOWN);
+            if (shutdownAt >= 0) {
+                running = false;
+                batch.subList(shutdownAt, batch.size()).removeIf(p -> p == SHUTDOWN);
+            }
+            if (!batch.isEmpty()) commitBatch(batch);
+            batch.clear();
+        }
+        rejectQueued();
+    }
+
+    /**
+     * Fails anything still queued after shutdown.
+     */
+    private void rejectQueued() {
+        PendingWrite<?> left;
+        while ((left = queue.poll()) != null) {
+            left.future.completeExceptionally(new SQLException("Write queue is closed."));
+        }
+    }
+
+    private void commitBatch(List<PendingWrite<?>> batch) {
+        try (Statement control = conn.createStatement()) {
+            conn.setAutoCommit(false);
+            for (PendingWrite<?> pending : batch) {
+                control.execute("SAVEPOINT write_task");
+                try {
+                    pending.run(conn);
+                    control.execute("RELEASE write_task");
+                } catch (Exception e) {
+                    control.execute("ROLLBACK TO write_task");
+                    control.execute("RELEASE write_task");
+                    pending.error = e;
+                }
+            }
+            conn.commit();
+            batches.incrementAndGet();
+            tasks.addAndGet(batch.size());
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Group commit failed", e);
+            try { conn.rollback(); } catch (SQLException ignored) {}
+            for (PendingWrite<?> pending : batch) {
+                if (pending.error == null) pending.error = e;
+            }
+        } finally {
+            try { conn.setAutoCommit(true); } catch (SQLException ignored) {}
+        }
+        for (PendingWrite<?> pending : batch) pending.complete();
+    }
+}
@@ -0,0 +1,51 @@
+package org.example;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests that every submitted write completes, also when the queue is closed concurrently.
+ */
+public class WriteQueueTest {
+
+    @Test
+    public void testSubmitRacingCloseAlwaysCompletes() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            WriteQueue writes = new WriteQueue(DriverManager.getConnection("jdbc:sqlite::memory:"), 4, 2);
+            List<CompletableFuture<Integer>> futures = new CopyOnWriteArrayList<>();
+            CountDownLatch started = new CountDownLatch(4);
+            Thread[] submitters = new Thread[4];
+            for (int t = 0; t < submitters.length; t++) {
+                submitters[t] = new Thread(() -> {
+                    started.countDown();
+                    for (int i = 0; i < 20; i++) futures.add(writes.submit(conn -> 1));
+                });
+                submitters[t].start();
+            }
+            started.await();
+            writes.close();
+            for (Thread t : submitters) t.join();
+
+            Assertions.assertEquals(80, futures.size());
+            for (CompletableFuture<Integer> future : futures) {
+                // Either committed before the shutdown or rejected; never left pending
+                Assertions.assertTrue(future.handle((r, e) -> true).get(5, TimeUnit.SECONDS));
+            }
+        }
+    }
+
+    @Test
+    public void testSubmitAfterCloseFails() throws Exception {
+        WriteQueue writes = new WriteQueue(DriverManager.getConnection("jdbc:sqlite::memory:"), 4, 2);
+        writes.close();
+        Assertions.assertThrows(SQLException.class, () -> writes.execute(conn -> 1));
+    }
+}